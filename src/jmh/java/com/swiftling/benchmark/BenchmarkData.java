@@ -0,0 +1,72 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detached entities shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final UUID OWNER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private BenchmarkData() {
+    }
+
+    static List<Tag> tags(int tagCount) {
+
+        List<Tag> tags = new ArrayList<>(tagCount);
+
+        for (int i = 0; i < tagCount; i++) {
+            Tag tag = new Tag();
+            tag.setId((long) i + 1);
+            tag.setTagName("Tag-" + i);
+            tag.setOwnerUserAccountId(OWNER_ID);
+            tags.add(tag);
+        }
+
+        return tags;
+
+    }
+
+    static List<Phrase> phrases(int phraseCount, int tagsPerPhrase) {
+
+        List<Tag> tags = tags(tagsPerPhrase);
+        List<Phrase> phrases = new ArrayList<>(phraseCount);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < phraseCount; i++) {
+
+            Phrase phrase = new Phrase();
+            phrase.setId((long) i + 1);
+            phrase.setExternalPhraseId(UUID.randomUUID());
+            phrase.setOriginalPhrase("phrase " + i);
+            phrase.setOriginalLanguage(Language.ENGLISH);
+            phrase.setMeaning("meaning " + i);
+            phrase.setMeaningLanguage(Language.TURKISH);
+            phrase.setStatus(i % 3 == 0 ? Status.LEARNED : Status.IN_PROGRESS);
+            phrase.setNotes("notes " + i);
+            phrase.setConsecutiveCorrectAnswerAmount(i % 5);
+            phrase.setOwnerUserAccountId(OWNER_ID);
+            phrase.setInsertDateTime(now.minusMinutes(i));
+
+            for (Tag tag : tags) {
+                phrase.addTag(tag);
+            }
+
+            phrases.add(phrase);
+
+        }
+
+        return phrases;
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.enums.Language;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Language#findByCode(String)} as the service calls it, i.e. on the lower-cased request value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LanguageBenchmark {
+
+    private String[] codes;
+
+    @Setup
+    public void setUp() {
+
+        Language[] languages = Language.values();
+
+        codes = new String[languages.length];
+
+        for (int i = 0; i < languages.length; i++) {
+            codes[i] = languages[i].getCode().toUpperCase();
+        }
+
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void findByCode(Blackhole blackhole) {
+        for (int i = 0; i < 64; i++) {
+            String code = codes[i % codes.length];
+            try {
+                blackhole.consume(Language.findByCode(code.toLowerCase()));
+            } catch (RuntimeException exception) {
+                // mixed-case codes such as zh-CN do not survive lower-casing
+                blackhole.consume(exception);
+            }
+        }
+    }
+
+}
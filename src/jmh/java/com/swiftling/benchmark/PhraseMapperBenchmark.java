@@ -0,0 +1,82 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.PhraseTag;
+import com.swiftling.mapper.PhraseMapper;
+import com.swiftling.mapper.PhraseMapperImpl;
+import com.swiftling.util.MapperUtil;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective {@link MapperUtil} conversion (plus the manual fix-ups the service used to apply)
+ * with the generated {@link PhraseMapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhraseMapperBenchmark {
+
+    @Param({"100", "1000"})
+    private int phraseCount;
+
+    private List<Phrase> phrases;
+    private MapperUtil mapperUtil;
+    private PhraseMapper phraseMapper;
+
+    @Setup
+    public void setUp() {
+        phrases = BenchmarkData.phrases(phraseCount, 3);
+        mapperUtil = new MapperUtil(new ModelMapper());
+        phraseMapper = new PhraseMapperImpl();
+    }
+
+    @Benchmark
+    public List<PhraseDTO> modelMapper() {
+
+        List<PhraseDTO> phraseDTOs = new ArrayList<>(phrases.size());
+
+        for (Phrase phrase : phrases) {
+
+            PhraseDTO phraseDTO = mapperUtil.convert(phrase, new PhraseDTO());
+
+            phraseDTO.setOriginalLanguage(phrase.getOriginalLanguage().getValue());
+            phraseDTO.setMeaningLanguage(phrase.getMeaningLanguage().getValue());
+            phraseDTO.setStatus(phrase.getStatus().getValue());
+
+            List<String> phraseTags = new ArrayList<>();
+            for (PhraseTag phraseTag : phrase.getPhraseTags()) {
+                phraseTags.add(phraseTag.getTag().getTagName().toLowerCase());
+            }
+            phraseDTO.setPhraseTags(phraseTags);
+
+            phraseDTOs.add(phraseDTO);
+
+        }
+
+        return phraseDTOs;
+
+    }
+
+    @Benchmark
+    public List<PhraseDTO> generatedMapper() {
+
+        List<PhraseDTO> phraseDTOs = new ArrayList<>(phrases.size());
+
+        for (Phrase phrase : phrases) {
+            phraseDTOs.add(phraseMapper.toPhraseDTO(phrase));
+        }
+
+        return phraseDTOs;
+
+    }
+
+}
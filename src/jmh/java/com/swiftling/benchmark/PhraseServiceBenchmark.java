@@ -0,0 +1,191 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.config.JobLeaseProperties;
+import com.swiftling.config.OutboxProperties;
+import com.swiftling.config.PaginationProperties;
+import com.swiftling.config.QuizProperties;
+import com.swiftling.config.TagCacheProperties;
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.PhrasePageDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.mapper.PhraseMapperImpl;
+import com.swiftling.repository.PhraseBatchRepository;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.repository.TagRepository;
+import com.swiftling.service.IdentityService;
+import com.swiftling.service.PhraseService;
+import com.swiftling.service.ProgressCounterService;
+import com.swiftling.service.PronunciationService;
+import com.swiftling.service.impl.JobLeaseServiceImpl;
+import com.swiftling.service.impl.OutboxServiceImpl;
+import com.swiftling.service.impl.PhraseSearchServiceImpl;
+import com.swiftling.service.impl.PhraseServiceImpl;
+import com.swiftling.service.impl.ProgressCounterServiceImpl;
+import com.swiftling.service.impl.QuizSamplingServiceImpl;
+import com.swiftling.service.impl.SpacedRepetitionServiceImpl;
+import com.swiftling.service.impl.TagDictionaryServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of {@link PhraseService} end to end against the embedded H2 database (PostgreSQL mode) configured in
+ * the test {@code application.yml}. Only the persistence layer and the services are started.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhraseServiceBenchmark {
+
+    private static final int OTHER_USER_COUNT = 500;
+
+    @Param({"1000", "10000"})
+    private int phraseCount;
+
+    private ConfigurableApplicationContext context;
+    private PhraseService phraseService;
+
+    @Setup
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN", "kafka.topic.user-progress=user-progress")
+                .run();
+
+        phraseService = context.getBean(PhraseService.class);
+
+        PhraseRepository phraseRepository = context.getBean(PhraseRepository.class);
+        TagRepository tagRepository = context.getBean(TagRepository.class);
+
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+
+            List<Tag> tags = tagRepository.saveAll(BenchmarkData.tags(3).stream()
+                    .peek(tag -> tag.setId(null))
+                    .toList());
+
+            List<Phrase> phrases = BenchmarkData.phrases(phraseCount, 0);
+
+            for (Phrase phrase : phrases) {
+                phrase.setId(null);
+                tags.forEach(phrase::addTag);
+            }
+
+            phraseRepository.saveAll(phrases);
+
+            for (int i = 0; i < OTHER_USER_COUNT; i++) {
+                Phrase phrase = BenchmarkData.phrases(1, 0).get(0);
+                phrase.setId(null);
+                phrase.setOriginalPhrase("other " + i);
+                phrase.setOwnerUserAccountId(UUID.randomUUID());
+                phraseRepository.save(phrase);
+            }
+
+        });
+
+        context.getBean(ProgressCounterService.class).rebuildAll();
+
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PhraseDTO> getPhrases() {
+        return phraseService.getPhrases(null, null, null, null);
+    }
+
+    @Benchmark
+    public List<PhraseDTO> getNextQuizBatch() {
+        return phraseService.getNextQuizBatch(null, 20);
+    }
+
+    @Benchmark
+    public PhrasePageDTO search() {
+        return phraseService.search("phrase 12", null, 50);
+    }
+
+    @Benchmark
+    public Set<String> getTags() {
+        return phraseService.getTags();
+    }
+
+    @Benchmark
+    public PhrasePageDTO getPhrasePage() {
+        return phraseService.getPhrasePage(null, null, null, null, null, 50, null);
+    }
+
+    @Benchmark
+    public PhrasePageDTO getPhrasePageWithoutTags() {
+        return phraseService.getPhrasePage(null, null, null, null, null, 50, Set.of("originalPhrase", "meaning"));
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class, JacksonAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+    @EntityScan("com.swiftling.entity")
+    @EnableJpaRepositories("com.swiftling.repository")
+    @Import({PhraseServiceImpl.class, PhraseMapperImpl.class, ProgressCounterServiceImpl.class, PaginationProperties.class,
+            JobLeaseServiceImpl.class, JobLeaseProperties.class, OutboxServiceImpl.class, OutboxProperties.class,
+            PhraseBatchRepository.class, TagDictionaryServiceImpl.class, TagCacheProperties.class, SpacedRepetitionServiceImpl.class,
+            QuizProperties.class, QuizSamplingServiceImpl.class, PhraseSearchServiceImpl.class})
+    static class BenchmarkConfiguration {
+
+        @Bean
+        IdentityService identityService() {
+            return new IdentityService() {
+
+                @Override
+                public UUID getOwnerUserAccountId() {
+                    return BenchmarkData.OWNER_ID;
+                }
+
+                @Override
+                public void prefetchOwnerUserAccountId() {
+                }
+
+            };
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PronunciationService pronunciationService() {
+            return (text, language) -> {
+                throw new UnsupportedOperationException("Pronunciations are not benchmarked.");
+            };
+        }
+
+    }
+
+}
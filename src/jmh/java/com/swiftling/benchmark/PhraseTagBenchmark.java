@@ -0,0 +1,69 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.mapper.PhraseMapper;
+import com.swiftling.mapper.PhraseMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag handling on a single phrase: {@link Phrase#addTag(Tag)} and {@link Phrase#removeTag(Tag)} scan the tag list
+ * on every call, and {@link PhraseMapper} flattens the tags into their names for the DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhraseTagBenchmark {
+
+    @Param({"5", "50"})
+    private int tagCount;
+
+    private List<Tag> tags;
+    private Phrase taggedPhrase;
+    private PhraseMapper phraseMapper;
+
+    @Setup
+    public void setUp() {
+        tags = BenchmarkData.tags(tagCount);
+        taggedPhrase = BenchmarkData.phrases(1, tagCount).get(0);
+        phraseMapper = new PhraseMapperImpl();
+    }
+
+    @Benchmark
+    public Phrase addTags() {
+
+        Phrase phrase = new Phrase();
+
+        for (Tag tag : tags) {
+            phrase.addTag(tag);
+        }
+
+        return phrase;
+
+    }
+
+    @Benchmark
+    public Phrase addAndRemoveTags() {
+
+        Phrase phrase = addTags();
+
+        for (Tag tag : tags) {
+            phrase.removeTag(tag);
+        }
+
+        return phrase;
+
+    }
+
+    @Benchmark
+    public List<String> flattenTagNames() {
+        return phraseMapper.toTagNames(taggedPhrase.getPhraseTags());
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.enums.Language;
+import com.swiftling.repository.PhraseBatchRepository;
+import com.swiftling.service.PhraseService;
+import com.swiftling.service.QuizSamplingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random quiz sampling for one user with {@code phraseCount} phrases, compared with {@code ORDER BY random()}.
+ * {@link #sampleAfterEviction()} includes loading the user's snapshot, which happens once per phrase change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizSamplingBenchmark {
+
+    private static final int TAG_COUNT = 10;
+    private static final int INSERT_CHUNK_SIZE = 5000;
+
+    @Param({"100000"})
+    private int phraseCount;
+
+    private ConfigurableApplicationContext context;
+    private PhraseService phraseService;
+    private QuizSamplingService quizSamplingService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(PhraseServiceBenchmark.BenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN", "kafka.topic.user-progress=user-progress")
+                .run();
+
+        phraseService = context.getBean(PhraseService.class);
+        quizSamplingService = context.getBean(QuizSamplingService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        PhraseBatchRepository phraseBatchRepository = context.getBean(PhraseBatchRepository.class);
+
+        Set<String> tagNames = new LinkedHashSet<>();
+
+        for (int i = 0; i < TAG_COUNT; i++) {
+            tagNames.add("tag-" + i);
+        }
+
+        Map<String, Long> tagIds = phraseBatchRepository.findOrInsertTags(BenchmarkData.OWNER_ID, tagNames);
+
+        List<Phrase> phrases = BenchmarkData.phrases(phraseCount, 0);
+
+        for (int from = 0; from < phrases.size(); from += INSERT_CHUNK_SIZE) {
+
+            List<Phrase> chunk = phrases.subList(from, Math.min(from + INSERT_CHUNK_SIZE, phrases.size()));
+            Map<UUID, Integer> indexes = new HashMap<>();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Phrase phrase = chunk.get(i);
+                phrase.setOriginalLanguage((from + i) % 4 == 0 ? Language.FRENCH : Language.ENGLISH);
+                indexes.put(phrase.getExternalPhraseId(), from + i);
+            }
+
+            Map<Long, List<Long>> tagIdsByPhraseId = new HashMap<>();
+
+            phraseBatchRepository.insertPhrases(chunk).forEach((externalPhraseId, phraseId) ->
+                    tagIdsByPhraseId.put(phraseId, List.of(tagIds.get("tag-" + indexes.get(externalPhraseId) % TAG_COUNT))));
+
+            phraseBatchRepository.insertPhraseTags(tagIdsByPhraseId);
+
+        }
+
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PhraseDTO> getRandomQuiz() {
+        return phraseService.getRandomQuiz(null, null, null, 20);
+    }
+
+    @Benchmark
+    public List<PhraseDTO> getRandomQuizFiltered() {
+        return phraseService.getRandomQuiz("In Progress", "fr", "tag-4", 20);
+    }
+
+    @Benchmark
+    public List<Long> sample() {
+        return quizSamplingService.sample(BenchmarkData.OWNER_ID, null, null, null, 20);
+    }
+
+    @Benchmark
+    public List<Long> sampleAfterEviction() {
+        quizSamplingService.evict(BenchmarkData.OWNER_ID);
+        return quizSamplingService.sample(BenchmarkData.OWNER_ID, null, null, null, 20);
+    }
+
+    @Benchmark
+    public List<Long> orderByRandom() {
+        return jdbcTemplate.queryForList("SELECT id FROM phrases WHERE owner_user_account_id = ? ORDER BY RANDOM() LIMIT 20",
+                Long.class, BenchmarkData.OWNER_ID);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.swiftling.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.wrapper.ResponseWrapper;
+import com.swiftling.mapper.PhraseMapper;
+import com.swiftling.mapper.PhraseMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the {@code GET /phrases} response body for large vocabularies.
+ * The mapper is configured like the one Spring Boot builds for the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseWrapperSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int phraseCount;
+
+    private ObjectMapper objectMapper;
+    private ResponseWrapper responseWrapper;
+
+    @Setup
+    public void setUp() {
+
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        PhraseMapper phraseMapper = new PhraseMapperImpl();
+
+        List<PhraseDTO> phrases = BenchmarkData.phrases(phraseCount, 3).stream()
+                .map(phraseMapper::toPhraseDTO)
+                .toList();
+
+        responseWrapper = ResponseWrapper.builder()
+                .success(true)
+                .statusCode(HttpStatus.OK)
+                .message("The phrases have been retrieved successfully.")
+                .data(phrases)
+                .build();
+
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responseWrapper);
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.swiftling.benchmark;
+
+import com.swiftling.dto.ProgressDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+import com.swiftling.serializer.UserProgressMessageSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of one progress message with the JSON and the binary value format.
+ * The payload sizes are printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserProgressMessageSerializationBenchmark {
+
+    private static final String TOPIC = "user-progress";
+
+    private JsonSerializer<Object> jsonSerializer;
+    private UserProgressMessageSerializer binarySerializer;
+    private UserProgressMessageDTO message;
+
+    @Setup
+    public void setUp() {
+
+        jsonSerializer = new JsonSerializer<>();
+        binarySerializer = new UserProgressMessageSerializer();
+
+        message = UserProgressMessageDTO.builder()
+                .userAccountId(UUID.randomUUID())
+                .progress(Map.of(
+                        "total-progress", new ProgressDTO(412, 1380),
+                        "monthly-progress", new ProgressDTO(37, 96),
+                        "weekly-progress", new ProgressDTO(9, 21),
+                        "daily-progress", new ProgressDTO(2, 4)))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        System.out.printf("Payload size: json=%d bytes, binary=%d bytes%n",
+                json().length, binary().length);
+
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        binarySerializer.close();
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return binarySerializer.serialize(TOPIC, new RecordHeaders(), message);
+    }
+
+}
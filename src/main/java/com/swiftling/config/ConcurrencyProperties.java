@@ -0,0 +1,28 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class ConcurrencyProperties {
+
+    /**
+     * Runs the identity lookup of a request on a virtual thread, overlapping it with request binding and validation
+     * instead of running it afterwards. Follows {@code spring.threads.virtual.enabled} unless set explicitly.
+     */
+    @Value("${concurrency.fan-out.enabled:${spring.threads.virtual.enabled:false}}")
+    private boolean fanOutEnabled;
+
+    /**
+     * Upper bound for how long a request waits for the tasks it forked.
+     */
+    @Value("${concurrency.fan-out.timeout:PT10S}")
+    private Duration fanOutTimeout;
+
+}
@@ -0,0 +1,35 @@
+package com.swiftling.config;
+
+import com.swiftling.service.IdentityService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Kicks off the identity lookup before the handler arguments are bound and validated. Only controller methods are
+ * prefetched for, not requests that end up at a resource or error handler.
+ * <p>
+ * The identity service is resolved lazily: it depends on the Feign client, which needs the MVC configuration
+ * this interceptor is registered with.
+ */
+@Component
+public class IdentityPrefetchInterceptor implements HandlerInterceptor {
+
+    private final ObjectProvider<IdentityService> identityService;
+
+    public IdentityPrefetchInterceptor(ObjectProvider<IdentityService> identityService) {
+        this.identityService = identityService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            identityService.getObject().prefetchOwnerUserAccountId();
+        }
+        return true;
+    }
+
+}
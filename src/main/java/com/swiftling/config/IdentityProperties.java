@@ -0,0 +1,31 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class IdentityProperties {
+
+    /**
+     * Name of a JWT claim carrying the external user account ID. When it is set and present on the token,
+     * the ID is read from the token and the user service is not called at all.
+     */
+    @Value("${identity.external-id-claim:}")
+    private String externalIdClaim;
+
+    /**
+     * Upper bound for how long a resolved ID is cached per JWT subject. Entries never outlive the token itself.
+     */
+    @Value("${identity.cache.ttl:PT15M}")
+    private Duration cacheTtl;
+
+    @Value("${identity.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+}
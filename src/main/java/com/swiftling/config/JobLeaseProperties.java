@@ -0,0 +1,28 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class JobLeaseProperties {
+
+    /**
+     * How long a claimed shard stays reserved for its instance. A shard that is still incomplete afterwards is
+     * assumed to belong to a crashed instance and may be claimed by another one.
+     */
+    @Value("${scheduling.lease.duration:PT15M}")
+    private Duration leaseDuration;
+
+    /**
+     * Lease rows of older runs are deleted after this many days.
+     */
+    @Value("${scheduling.lease.retention-days:7}")
+    private int retentionDays;
+
+}
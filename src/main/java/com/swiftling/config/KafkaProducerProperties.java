@@ -0,0 +1,51 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Producer throughput profile. The defaults favour few, large, compressed requests for the daily burst
+ * while keeping per-user ordering and exactly-once delivery per partition.
+ */
+@Component
+@Getter
+@Setter
+public class KafkaProducerProperties {
+
+    @Value("${kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    /**
+     * Must stay at 5 or below while idempotence is enabled, otherwise ordering per key is not guaranteed.
+     */
+    @Value("${kafka.producer.max-in-flight-requests-per-connection:5}")
+    private int maxInFlightRequestsPerConnection;
+
+    @Value("${kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${kafka.producer.buffer-memory:33554432}")
+    private long bufferMemory;
+
+    @Value("${kafka.producer.delivery-timeout-ms:120000}")
+    private int deliveryTimeoutMs;
+
+    /**
+     * {@code json} or {@code binary}. With {@code binary}, progress messages use the compact layout of
+     * {@link com.swiftling.serializer.UserProgressMessageCodec}; other payloads stay JSON.
+     */
+    @Value("${kafka.producer.value-format:json}")
+    private String valueFormat;
+
+}
@@ -0,0 +1,46 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class OutboxProperties {
+
+    @Value("${outbox.phrase-change-topic:phrase-changes}")
+    private String phraseChangeTopic;
+
+    /**
+     * Maximum number of events locked and sent by one relay transaction.
+     */
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * How long the relay waits for the broker to acknowledge a batch before the unacknowledged events are retried.
+     */
+    @Value("${outbox.relay.send-timeout:PT30S}")
+    private Duration sendTimeout;
+
+    /**
+     * Delay before the first retry of a failed event. It doubles with every further attempt up to the maximum.
+     */
+    @Value("${outbox.relay.initial-backoff:PT1S}")
+    private Duration initialBackoff;
+
+    @Value("${outbox.relay.max-backoff:PT5M}")
+    private Duration maxBackoff;
+
+    /**
+     * Failed sends after which an event is moved to {@code outbox_dead_letters}, so it no longer holds up the user's
+     * later events. With the default backoff, 20 attempts span about an hour, which a broker outage should not outlast.
+     */
+    @Value("${outbox.relay.max-attempts:20}")
+    private int maxAttempts;
+
+}
@@ -0,0 +1,25 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+public class PhraseImportProperties {
+
+    /**
+     * Rows deduplicated, inserted and committed together. A failing batch does not roll back the previous ones.
+     */
+    @Value("${phrase-import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Rows after this one are not read.
+     */
+    @Value("${phrase-import.max-rows:20000}")
+    private int maxRows;
+
+}
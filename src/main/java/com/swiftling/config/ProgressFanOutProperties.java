@@ -0,0 +1,40 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class ProgressFanOutProperties {
+
+    /**
+     * Number of users whose progress is loaded and published per chunk.
+     */
+    @Value("${progress.fan-out.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Upper bound for Kafka sends that have not been acknowledged yet. The job pauses when it is reached.
+     */
+    @Value("${progress.fan-out.max-in-flight:1000}")
+    private int maxInFlight;
+
+    /**
+     * How long the job waits for the outstanding sends after the last chunk.
+     */
+    @Value("${progress.fan-out.completion-timeout:PT5M}")
+    private Duration completionTimeout;
+
+    /**
+     * Number of user ID ranges the job is split into. Replicas claim ranges through the lease table,
+     * so each range is published by exactly one of them. Must stay the same on all replicas.
+     */
+    @Value("${progress.fan-out.shard-count:16}")
+    private int shardCount;
+
+}
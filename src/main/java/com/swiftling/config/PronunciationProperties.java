@@ -0,0 +1,34 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+public class PronunciationProperties {
+
+    @Value("${pronunciation.voice-gender:NEUTRAL}")
+    private String voiceGender;
+
+    @Value("${pronunciation.audio-encoding:MP3}")
+    private String audioEncoding;
+
+    @Value("${pronunciation.cache.memory.max-bytes:33554432}")
+    private long memoryCacheMaxBytes;
+
+    @Value("${pronunciation.cache.disk.enabled:true}")
+    private boolean diskCacheEnabled;
+
+    @Value("${pronunciation.cache.disk.directory:${java.io.tmpdir}/swiftling-pronunciations}")
+    private String diskCacheDirectory;
+
+    /**
+     * The least recently used audio files are deleted beyond this total size.
+     */
+    @Value("${pronunciation.cache.disk.max-bytes:536870912}")
+    private long diskCacheMaxBytes;
+
+}
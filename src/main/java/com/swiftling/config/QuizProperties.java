@@ -0,0 +1,43 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class QuizProperties {
+
+    @Value("${quiz.default-batch-size:20}")
+    private int defaultBatchSize;
+
+    @Value("${quiz.max-batch-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * A phrase answered wrong is asked again after this delay instead of the next day.
+     */
+    @Value("${quiz.relearn-delay:PT10M}")
+    private Duration relearnDelay;
+
+    @Value("${quiz.max-interval-days:365}")
+    private int maxIntervalDays;
+
+    /**
+     * Only this replica refreshes the random quiz snapshot of a user on its own changes, so this bounds how long
+     * another replica may sample from a stale one.
+     */
+    @Value("${quiz.sampling-cache-ttl:PT10M}")
+    private Duration samplingCacheTtl;
+
+    /**
+     * Upper bound of the phrases held by all cached random quiz snapshots together (about 30 bytes per phrase).
+     */
+    @Value("${quiz.sampling-cache-max-phrases:2000000}")
+    private long samplingCacheMaxPhrases;
+
+}
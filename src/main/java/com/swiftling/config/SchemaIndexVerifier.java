@@ -0,0 +1,109 @@
+package com.swiftling.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Refuses to start the service when an index the repositories rely on is missing (or, on PostgreSQL, was left
+ * invalid by a failed concurrent build), instead of serving every request with sequential scans. Runs after the
+ * migrations, before the web server accepts requests.
+ */
+@Component
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    static final Map<String, List<String>> EXPECTED_INDEXES = new LinkedHashMap<>();
+
+    static {
+        EXPECTED_INDEXES.put("phrases", List.of("idx_phrases_owner_original_phrase", "idx_phrases_owner_status",
+                "idx_phrases_owner_insert_date_time", "idx_phrases_owner_language_due_at", "idx_phrases_owner_meaning_language",
+                "idx_phrases_owner_due_at"));
+        EXPECTED_INDEXES.put("phrase_tags", List.of("idx_phrase_tags_tag_phrase"));
+        EXPECTED_INDEXES.put("outbox_events", List.of("idx_outbox_events_next_attempt_at", "idx_outbox_events_user_account_id"));
+    }
+
+    static final List<String> POSTGRESQL_SEARCH_INDEXES = List.of("idx_phrases_search_document",
+            "idx_phrases_original_phrase_trgm", "idx_phrases_meaning_trgm", "idx_phrases_notes_trgm");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaIndexVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        List<String> missingIndexes = findMissingIndexes();
+
+        if (!missingIndexes.isEmpty()) {
+            throw new IllegalStateException("The database indexes " + missingIndexes + " are missing or invalid. " +
+                    "Apply the db/migration migrations before starting the service.");
+        }
+
+    }
+
+    List<String> findMissingIndexes() {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean postgreSql = "PostgreSQL".equals(metaData.getDatabaseProductName());
+
+            Set<String> indexNames = new HashSet<>();
+
+            for (String table : EXPECTED_INDEXES.keySet()) {
+                try (ResultSet indexInfo = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+                    while (indexInfo.next()) {
+                        String indexName = indexInfo.getString("INDEX_NAME");
+                        if (indexName != null) {
+                            indexNames.add(indexName.toLowerCase());
+                        }
+                    }
+                }
+            }
+
+            List<String> expectedIndexes = new ArrayList<>();
+            EXPECTED_INDEXES.values().forEach(expectedIndexes::addAll);
+
+            if (postgreSql) {
+                expectedIndexes.addAll(POSTGRESQL_SEARCH_INDEXES);
+                indexNames.removeAll(findInvalidPostgreSqlIndexes(connection));
+            }
+
+            return expectedIndexes.stream()
+                    .filter(indexName -> !indexNames.contains(indexName))
+                    .toList();
+
+        });
+    }
+
+    private static Set<String> findInvalidPostgreSqlIndexes(Connection connection) throws SQLException {
+
+        Set<String> invalidIndexes = new HashSet<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE NOT i.indisvalid")) {
+            while (resultSet.next()) {
+                invalidIndexes.add(resultSet.getString(1));
+            }
+        }
+
+        return invalidIndexes;
+
+    }
+
+}
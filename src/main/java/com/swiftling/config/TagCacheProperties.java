@@ -0,0 +1,24 @@
+package com.swiftling.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+public class TagCacheProperties {
+
+    /**
+     * Only this replica evicts on its own changes, so this bounds how long another replica may serve stale tags.
+     */
+    @Value("${tag-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${tag-cache.max-size:10000}")
+    private int maxSize;
+
+}
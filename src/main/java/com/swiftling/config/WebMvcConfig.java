@@ -0,0 +1,27 @@
+package com.swiftling.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final IdentityPrefetchInterceptor identityPrefetchInterceptor;
+
+    public WebMvcConfig(IdentityPrefetchInterceptor identityPrefetchInterceptor) {
+        this.identityPrefetchInterceptor = identityPrefetchInterceptor;
+    }
+
+    /**
+     * The excluded endpoints never resolve the owner, so a prefetch would only cost a user service call on a cache
+     * miss.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(identityPrefetchInterceptor)
+                .addPathPatterns("/api/v1/phrase/**")
+                .excludePathPatterns("/api/v1/phrase/delete-all-user-phrases", "/api/v1/phrase/languages");
+    }
+
+}
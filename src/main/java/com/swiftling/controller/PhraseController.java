@@ -1,10 +1,17 @@
 package com.swiftling.controller;
 
 import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.PhraseImportReportDTO;
+import com.swiftling.dto.PhrasePageDTO;
 import com.swiftling.dto.PhraseResultDTO;
+import com.swiftling.dto.PhraseResultReportDTO;
 import com.swiftling.dto.ProgressDTO;
+import com.swiftling.dto.PronunciationDTO;
 import com.swiftling.dto.wrapper.ExceptionWrapper;
 import com.swiftling.dto.wrapper.ResponseWrapper;
+import com.swiftling.enums.ExportFormat;
+import com.swiftling.service.PhraseExportService;
+import com.swiftling.service.PhraseImportService;
 import com.swiftling.service.PhraseService;
 import com.swiftling.util.SwaggerExamples;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,12 +21,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,9 +45,14 @@ import java.util.UUID;
 public class PhraseController {
 
     private final PhraseService phraseService;
+    private final PhraseImportService phraseImportService;
+    private final PhraseExportService phraseExportService;
 
-    public PhraseController(PhraseService phraseService) {
+    public PhraseController(PhraseService phraseService, PhraseImportService phraseImportService,
+                            PhraseExportService phraseExportService) {
         this.phraseService = phraseService;
+        this.phraseImportService = phraseImportService;
+        this.phraseExportService = phraseExportService;
     }
 
     @PostMapping("/add-phrase")
@@ -70,8 +89,44 @@ public class PhraseController {
 
     }
 
+    @PostMapping(value = "/import-phrases", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import many phrases for the logged in user from a CSV file (header row, tags separated by ';') " +
+            "or from NDJSON (one phrase per line). Every row is reported as imported, duplicate, invalid or failed.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = {@Content(mediaType = "text/csv", examples = @ExampleObject(value = SwaggerExamples.PHRASE_IMPORT_CSV_REQUEST_EXAMPLE)),
+                            @Content(mediaType = "application/x-ndjson", examples = @ExampleObject(value = SwaggerExamples.PHRASE_IMPORT_NDJSON_REQUEST_EXAMPLE))}))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The phrases have been imported.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.PHRASE_IMPORT_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "400", description = "The import file could not be read: Missing header line",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.INVALID_IMPORT_FILE_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "503", description = "The external ID of the user account could not be retrieved.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.USER_EXTERNAL_ID_NOT_RETRIEVED_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<ResponseWrapper> importPhrases(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                         InputStream content) {
+
+        PhraseImportReportDTO report = phraseImportService.importPhrases(content, contentType);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ResponseWrapper.builder()
+                .statusCode(HttpStatus.OK)
+                .success(true)
+                .message("The phrases have been imported.")
+                .data(report)
+                .build());
+
+    }
+
     @GetMapping("/phrases")
-    @Operation(summary = "Get all the phrases created by the currently logged in user, with/without status and language filters.")
+    @Operation(summary = "Get all the phrases created by the currently logged in user, with/without status, language and tag filters. " +
+            "Repeat tag to filter by several tags: phrases with any of them are returned, or only phrases with all of them when tag-match=all. " +
+            "When cursor, page-size or fields is given, one page of the newest phrases is returned together with the cursor of the next page, " +
+            "and only the listed fields (e.g. fields=originalPhrase,meaning) are included.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The phrases have been retrieved successfully.",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseWrapper.class),
@@ -83,9 +138,16 @@ public class PhraseController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
                             examples = @ExampleObject(value = SwaggerExamples.USER_EXTERNAL_ID_NOT_RETRIEVED_RESPONSE_EXAMPLE)))})
     public ResponseEntity<ResponseWrapper> getPhrases(@RequestParam(value = "status", required = false) String status,
-                                                      @RequestParam(value = "langCode", required = false) String languageCode) {
+                                                      @RequestParam(value = "langCode", required = false) String languageCode,
+                                                      @RequestParam(value = "tag", required = false) List<String> tagNames,
+                                                      @RequestParam(value = "tag-match", required = false) String tagMatch,
+                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "page-size", required = false) Integer pageSize,
+                                                      @RequestParam(value = "fields", required = false) Set<String> fields) {
 
-        List<PhraseDTO> phrases = phraseService.getPhrases(status, languageCode);
+        Object phrases = cursor == null && pageSize == null && fields == null
+                ? phraseService.getPhrases(status, languageCode, tagNames, tagMatch)
+                : phraseService.getPhrasePage(status, languageCode, tagNames, tagMatch, cursor, pageSize, fields);
 
         return ResponseEntity.status(HttpStatus.OK).body(ResponseWrapper.builder()
                 .statusCode(HttpStatus.OK)
@@ -96,6 +158,36 @@ public class PhraseController {
 
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export all phrases of the logged in user with their tags as NDJSON (format=ndjson, the default) " +
+            "or CSV (format=csv). The file is streamed while it is read from the database.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All phrases of the logged in user.",
+                    content = {@Content(mediaType = "application/x-ndjson", examples = @ExampleObject(value = SwaggerExamples.PHRASE_EXPORT_NDJSON_RESPONSE_EXAMPLE)),
+                            @Content(mediaType = "text/csv", examples = @ExampleObject(value = SwaggerExamples.PHRASE_EXPORT_CSV_RESPONSE_EXAMPLE))}),
+            @ApiResponse(responseCode = "400", description = "Unknown Export Format: xml",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.UNKNOWN_EXPORT_FORMAT_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "503", description = "The external ID of the user account could not be retrieved.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.USER_EXTERNAL_ID_NOT_RETRIEVED_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<StreamingResponseBody> exportPhrases(@RequestParam(value = "format", required = false, defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.findByValue(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("phrases." + exportFormat.getValue())
+                        .build()
+                        .toString())
+                .body(phraseExportService.exportPhrases(exportFormat));
+
+    }
+
     @GetMapping("/last-ten-phrases")
     @Operation(summary = "Get the last 10 phrases created by the currently logged in user.")
     @ApiResponses(value = {
@@ -196,6 +288,99 @@ public class PhraseController {
 
     }
 
+    @GetMapping("/quiz/next-batch")
+    @Operation(summary = "Get the phrases of the logged in user that are due for a quiz the soonest, overdue ones first. " +
+            "Optionally only phrases of the given original language code.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The next quiz batch has been retrieved successfully.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.QUIZ_NEXT_BATCH_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "400", description = "Unknown Language Code: xx",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.UNKNOWN_LANGUAGE_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "503", description = "The external ID of the user account could not be retrieved.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.USER_EXTERNAL_ID_NOT_RETRIEVED_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<ResponseWrapper> getNextQuizBatch(@RequestParam(value = "language", required = false) String languageCode,
+                                                            @RequestParam(value = "size", required = false) Integer batchSize) {
+
+        List<PhraseDTO> phrases = phraseService.getNextQuizBatch(languageCode, batchSize);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ResponseWrapper.builder()
+                .statusCode(HttpStatus.OK)
+                .success(true)
+                .message("The next quiz batch has been retrieved successfully.")
+                .data(phrases)
+                .build());
+
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search the original phrases, meanings and notes of the logged in user. Every word of the query matches " +
+            "words it is a prefix of or similar to (typos). The best matches come first, one page at a time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The search results have been retrieved successfully.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.PHRASE_SEARCH_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "400", description = "The search query must contain a letter or a digit.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.INVALID_SEARCH_QUERY_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "503", description = "The external ID of the user account could not be retrieved.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.USER_EXTERNAL_ID_NOT_RETRIEVED_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<ResponseWrapper> search(@RequestParam(value = "q", required = false) String query,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "page-size", required = false) Integer pageSize) {
+
+        PhrasePageDTO searchResults = phraseService.search(query, cursor, pageSize);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ResponseWrapper.builder()
+                .statusCode(HttpStatus.OK)
+                .success(true)
+                .message("The search results have been retrieved successfully.")
+                .data(searchResults)
+                .build());
+
+    }
+
+    @GetMapping("/quiz/random")
+    @Operation(summary = "Get phrases of the logged in user drawn at random, favouring the ones with fewer consecutive correct answers. " +
+            "Optionally only phrases with the given status, original language code and tag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The random quiz has been retrieved successfully.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.QUIZ_RANDOM_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "400", description = "Unknown Language Code: xx / Unknown Status: xx",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.UNKNOWN_LANGUAGE_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "503", description = "The external ID of the user account could not be retrieved.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.USER_EXTERNAL_ID_NOT_RETRIEVED_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<ResponseWrapper> getRandomQuiz(@RequestParam(value = "status", required = false) String status,
+                                                         @RequestParam(value = "language", required = false) String languageCode,
+                                                         @RequestParam(value = "tag", required = false) String tagName,
+                                                         @RequestParam(value = "size", required = false) Integer size) {
+
+        List<PhraseDTO> phrases = phraseService.getRandomQuiz(status, languageCode, tagName, size);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ResponseWrapper.builder()
+                .statusCode(HttpStatus.OK)
+                .success(true)
+                .message("The random quiz has been retrieved successfully.")
+                .data(phrases)
+                .build());
+
+    }
+
     @GetMapping("/tags")
     @Operation(summary = "Get all the tag options for the logged in user.")
     @ApiResponses(value = {
@@ -286,9 +471,6 @@ public class PhraseController {
             @ApiResponse(responseCode = "200", description = "The statuses of the phrases have been updated successfully.",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseWrapper.class),
                             examples = @ExampleObject(value = SwaggerExamples.PHRASE_STATUS_UPDATE_RESPONSE_EXAMPLE))),
-            @ApiResponse(responseCode = "409", description = "The given phrase does not exist: demo phrase",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
-                            examples = @ExampleObject(value = SwaggerExamples.PHRASE_NOT_FOUND_RESPONSE_EXAMPLE))),
             @ApiResponse(responseCode = "400", description = "Invalid Input(s)",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
                             examples = @ExampleObject(value = SwaggerExamples.VALIDATION_EXCEPTION_RESPONSE_EXAMPLE))),
@@ -297,12 +479,13 @@ public class PhraseController {
                             examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE)))})
     ResponseEntity<ResponseWrapper> changePhraseStatuses(@RequestBody Map<UUID, PhraseResultDTO> resultForEachPhrase) {
 
-        phraseService.updateStatuses(resultForEachPhrase);
+        List<PhraseResultReportDTO> report = phraseService.updateStatuses(resultForEachPhrase);
 
         return ResponseEntity.status(HttpStatus.OK).body(ResponseWrapper.builder()
                 .statusCode(HttpStatus.OK)
                 .success(true)
                 .message("The statuses of the phrases have been updated successfully.")
+                .data(report)
                 .build());
 
     }
@@ -365,18 +548,14 @@ public class PhraseController {
             @ApiResponse(responseCode = "403", description = "Access is denied",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
                             examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE)))})
-    public ResponseEntity<ResponseWrapper> getOriginalPronunciation(@RequestParam(value = "phrase-id", required = true) UUID externalPhraseId) throws Exception {
+    public ResponseEntity<ResponseWrapper> getOriginalPronunciation(@RequestParam(value = "phrase-id", required = true) UUID externalPhraseId) {
 
-        String audioFileName = "pronunciation.mp3";
-
-        phraseService.originalPhraseSynthesizeSpeech(externalPhraseId, audioFileName);
-
-        byte[] audioBytes = Files.readAllBytes(Paths.get(audioFileName));
+        PronunciationDTO pronunciation = phraseService.getOriginalPronunciation(externalPhraseId);
 
         return ResponseEntity.ok(ResponseWrapper.builder()
                 .statusCode(HttpStatus.OK)
                 .success(true)
-                .data(audioBytes)
+                .data(pronunciation.getAudio())
                 .build());
 
     }
@@ -397,20 +576,80 @@ public class PhraseController {
             @ApiResponse(responseCode = "403", description = "Access is denied",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
                             examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE)))})
-    public ResponseEntity<ResponseWrapper> getMeaningPronunciation(@RequestParam(value = "phrase-id", required = true) UUID externalPhraseId) throws Exception {
-
-        String audioFileName = "pronunciation.mp3";
-
-        phraseService.meaningPhraseSynthesizeSpeech(externalPhraseId, audioFileName);
+    public ResponseEntity<ResponseWrapper> getMeaningPronunciation(@RequestParam(value = "phrase-id", required = true) UUID externalPhraseId) {
 
-        byte[] audioBytes = Files.readAllBytes(Paths.get(audioFileName));
+        PronunciationDTO pronunciation = phraseService.getMeaningPronunciation(externalPhraseId);
 
         return ResponseEntity.ok(ResponseWrapper.builder()
                 .statusCode(HttpStatus.OK)
                 .success(true)
-                .data(audioBytes)
+                .data(pronunciation.getAudio())
                 .build());
 
     }
 
+    @GetMapping("pronunciation/original/audio")
+    @Operation(summary = "Stream the pronunciation audio of the original phrase created by the logged in user. Supports Range and If-None-Match requests.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The pronunciation audio of the original phrase.",
+                    content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "206", description = "The requested range of the pronunciation audio of the original phrase.",
+                    content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "304", description = "The pronunciation has not changed since the given ETag."),
+            @ApiResponse(responseCode = "404", description = "The phrase does not exist: 550e8400-e29b-41d4-a716-446655440000",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.PHRASE_NOT_FOUND_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<Resource> streamOriginalPronunciation(@RequestParam(value = "phrase-id", required = true) UUID externalPhraseId,
+                                                                WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(phraseService.getOriginalPronunciationETag(externalPhraseId))) {
+            return null;
+        }
+
+        return toAudioResponse(phraseService.getOriginalPronunciation(externalPhraseId));
+
+    }
+
+    @GetMapping("pronunciation/meaning/audio")
+    @Operation(summary = "Stream the pronunciation audio of the meaning of a phrase created by the logged in user. Supports Range and If-None-Match requests.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The pronunciation audio of the meaning of a phrase.",
+                    content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "206", description = "The requested range of the pronunciation audio of the meaning of a phrase.",
+                    content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "304", description = "The pronunciation has not changed since the given ETag."),
+            @ApiResponse(responseCode = "404", description = "The phrase does not exist: 550e8400-e29b-41d4-a716-446655440000",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.PHRASE_NOT_FOUND_RESPONSE_EXAMPLE))),
+            @ApiResponse(responseCode = "403", description = "Access is denied",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionWrapper.class),
+                            examples = @ExampleObject(value = SwaggerExamples.ACCESS_DENIED_FORBIDDEN_RESPONSE_EXAMPLE)))})
+    public ResponseEntity<Resource> streamMeaningPronunciation(@RequestParam(value = "phrase-id", required = true) UUID externalPhraseId,
+                                                               WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(phraseService.getMeaningPronunciationETag(externalPhraseId))) {
+            return null;
+        }
+
+        return toAudioResponse(phraseService.getMeaningPronunciation(externalPhraseId));
+
+    }
+
+    /**
+     * Returning a {@link Resource} lets Spring MVC answer Range requests with 206 partial content. A matching
+     * If-None-Match has already been answered with 304 by the caller, from the ETag alone, so the audio is only loaded
+     * or synthesized when it is sent. The audio only changes when the phrase text changes, so clients are asked to
+     * revalidate instead of caching for a fixed time.
+     */
+    private ResponseEntity<Resource> toAudioResponse(PronunciationDTO pronunciation) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(pronunciation.getContentType()))
+                .eTag(pronunciation.getETag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(new ByteArrayResource(pronunciation.getAudio()));
+    }
+
 }
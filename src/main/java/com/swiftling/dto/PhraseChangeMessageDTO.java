@@ -0,0 +1,32 @@
+package com.swiftling.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.swiftling.enums.PhraseChangeType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhraseChangeMessageDTO {
+
+    private PhraseChangeType changeType;
+    private UUID userAccountId;
+    private UUID externalPhraseId;
+    private List<UUID> externalPhraseIds;
+    private String originalPhrase;
+    private String originalLanguage;
+    private String meaning;
+    private String meaningLanguage;
+    private List<String> phraseTags;
+    private String status;
+    private LocalDateTime timestamp;
+
+}
@@ -0,0 +1,27 @@
+package com.swiftling.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhraseImportReportDTO {
+
+    private int importedCount;
+
+    private int duplicateCount;
+
+    private int invalidCount;
+
+    private int failedCount;
+
+    private List<PhraseImportRowReportDTO> rows = new ArrayList<>();
+
+}
@@ -0,0 +1,26 @@
+package com.swiftling.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhraseImportRowReportDTO {
+
+    private Integer row;
+
+    private String outcome;
+
+    private UUID externalPhraseId;
+
+    private String originalPhrase;
+
+    private String message;
+
+}
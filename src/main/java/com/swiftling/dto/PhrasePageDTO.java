@@ -0,0 +1,20 @@
+package com.swiftling.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhrasePageDTO {
+
+    private List<PhraseDTO> phrases;
+
+    private String nextCursor;
+
+}
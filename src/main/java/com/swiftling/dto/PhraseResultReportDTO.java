@@ -0,0 +1,24 @@
+package com.swiftling.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhraseResultReportDTO {
+
+    private UUID externalPhraseId;
+
+    private String outcome;
+
+    private String status;
+
+    private Integer consecutiveCorrectAnswerAmount;
+
+}
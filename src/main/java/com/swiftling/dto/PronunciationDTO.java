@@ -0,0 +1,14 @@
+package com.swiftling.dto;
+
+import lombok.*;
+
+@Getter
+@ToString(exclude = "audio")
+@AllArgsConstructor
+public class PronunciationDTO {
+
+    private final byte[] audio;
+    private final String contentType;
+    private final String eTag;
+
+}
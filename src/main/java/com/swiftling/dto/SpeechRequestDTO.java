@@ -0,0 +1,16 @@
+package com.swiftling.dto;
+
+import lombok.*;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class SpeechRequestDTO {
+
+    private final String text;
+    private final String languageCode;
+    private final String voiceGender;
+    private final String audioEncoding;
+
+}
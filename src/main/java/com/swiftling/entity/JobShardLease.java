@@ -0,0 +1,40 @@
+package com.swiftling.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Claim of one shard of a scheduled job run by one service instance. The unique constraint makes the claim exclusive:
+ * whoever inserts the row first processes the shard, everybody else skips it.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "job_shard_leases", uniqueConstraints = @UniqueConstraint(columnNames = {"job_name", "run_date", "shard"}))
+public class JobShardLease extends BaseEntity {
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(name = "leased_by", nullable = false)
+    private String leasedBy;
+
+    @Column(name = "leased_until", nullable = false)
+    private LocalDateTime leasedUntil;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+}
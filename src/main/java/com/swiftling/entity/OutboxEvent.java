@@ -0,0 +1,67 @@
+package com.swiftling.entity;
+
+import com.swiftling.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Kafka message written in the same transaction as the change it describes. The relay sends it and deletes the row
+ * once the broker acknowledged it, so a message is never lost with a rolled back change nor sent for one.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_next_attempt_at", columnList = "next_attempt_at"),
+        @Index(name = "idx_outbox_events_user_account_id", columnList = "user_account_id, id")
+})
+public class OutboxEvent extends BaseEntity {
+
+    @Column(name = "event_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private String topic;
+
+    /**
+     * Kafka key. Events of one user are relayed in insertion order.
+     */
+    @Column(name = "user_account_id", nullable = false)
+    private UUID userAccountId;
+
+    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public OutboxEvent(OutboxEventType eventType, String topic, UUID userAccountId, String payload, LocalDateTime createdAt) {
+        this.eventType = eventType;
+        this.topic = topic;
+        this.userAccountId = userAccountId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+        this.attempts = 0;
+    }
+
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,7 +17,13 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "phrases")
+@Table(name = "phrases", indexes = {
+        @Index(name = "idx_phrases_owner_due_at", columnList = "owner_user_account_id, due_at"),
+        @Index(name = "idx_phrases_owner_language_due_at", columnList = "owner_user_account_id, original_language, due_at"),
+        @Index(name = "idx_phrases_owner_status", columnList = "owner_user_account_id, status"),
+        @Index(name = "idx_phrases_owner_original_phrase", columnList = "owner_user_account_id, original_phrase"),
+        @Index(name = "idx_phrases_owner_meaning_language", columnList = "owner_user_account_id, meaning_language"),
+        @Index(name = "idx_phrases_owner_insert_date_time", columnList = "owner_user_account_id, insert_date_time, id")})
 public class Phrase extends BaseEntity {
 
     @Column(unique = true, nullable = false)
@@ -54,6 +61,21 @@ public class Phrase extends BaseEntity {
     @Column(nullable = false)
     private LocalDateTime insertDateTime;
 
+    /**
+     * Spaced-repetition schedule: the phrase is due for a quiz at {@code dueAt}. A new phrase is due right away.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private LocalDateTime dueAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer reviewIntervalDays = 0;
+
+    @Column(nullable = false)
+    @ColumnDefault("2.5")
+    private Double easeFactor = 2.5;
+
     public void addTag(Tag tag) {
         if (phraseTags.stream().noneMatch(pt -> pt.getTag().equals(tag))) {
             PhraseTag pt = new PhraseTag(this, tag);
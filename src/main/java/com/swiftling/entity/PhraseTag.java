@@ -9,7 +9,8 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "phrase_tags", uniqueConstraints = @UniqueConstraint(columnNames = {"phrase_id", "tag_id"}))
+@Table(name = "phrase_tags", uniqueConstraints = @UniqueConstraint(columnNames = {"phrase_id", "tag_id"}),
+        indexes = @Index(name = "idx_phrase_tags_tag_phrase", columnList = "tag_id, phrase_id"))
 public class PhraseTag extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,37 @@
+package com.swiftling.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "user_progress", uniqueConstraints = @UniqueConstraint(columnNames = {"owner_user_account_id", "bucket_date"}))
+public class UserProgress extends BaseEntity {
+
+    @Column(name = "owner_user_account_id", nullable = false)
+    private UUID ownerUserAccountId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(nullable = false)
+    private Integer learned;
+
+    @Column(nullable = false)
+    private Integer added;
+
+    public UserProgress(UUID ownerUserAccountId, LocalDate bucketDate, Integer learned, Integer added) {
+        this.ownerUserAccountId = ownerUserAccountId;
+        this.bucketDate = bucketDate;
+        this.learned = learned;
+        this.added = added;
+    }
+
+}
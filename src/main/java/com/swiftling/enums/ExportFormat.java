@@ -0,0 +1,36 @@
+package com.swiftling.enums;
+
+import com.swiftling.exception.UnknownExportFormatException;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Getter
+public enum ExportFormat {
+
+    NDJSON("ndjson", MediaType.valueOf("application/x-ndjson")), CSV("csv", MediaType.valueOf("text/csv"));
+
+    private final String value;
+    private final MediaType mediaType;
+
+    ExportFormat(String value, MediaType mediaType) {
+        this.value = value;
+        this.mediaType = mediaType;
+    }
+
+    private static final Map<String,ExportFormat> BY_VALUE =
+            Stream.of(values())
+                    .collect(Collectors.toMap(ExportFormat::getValue, s -> s));
+
+    public static ExportFormat findByValue(String value) {
+        ExportFormat exportFormat = BY_VALUE.get(value);
+        if (exportFormat == null) {
+            throw new UnknownExportFormatException("Unknown Export Format: " + value);
+        }
+        return exportFormat;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.swiftling.enums;
+
+import com.swiftling.dto.PhraseChangeMessageDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+import lombok.Getter;
+
+/**
+ * Kind of message stored in the outbox, with the class its payload is read back into before it is sent.
+ */
+@Getter
+public enum OutboxEventType {
+
+    USER_PROGRESS(UserProgressMessageDTO.class), PHRASE_CHANGE(PhraseChangeMessageDTO.class);
+
+    private final Class<?> messageType;
+
+    OutboxEventType(Class<?> messageType) {
+        this.messageType = messageType;
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.swiftling.enums;
+
+public enum PhraseChangeType {
+
+    CREATED, UPDATED, DELETED, IMPORTED
+
+}
@@ -0,0 +1,16 @@
+package com.swiftling.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum PhraseImportOutcome {
+
+    IMPORTED("Imported"), DUPLICATE("Duplicate"), INVALID("Invalid"), FAILED("Failed");
+
+    private final String value;
+
+    PhraseImportOutcome(String value) {
+        this.value = value;
+    }
+
+}
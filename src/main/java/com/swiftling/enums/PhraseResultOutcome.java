@@ -0,0 +1,16 @@
+package com.swiftling.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum PhraseResultOutcome {
+
+    UPDATED("Updated"), NOT_FOUND("Not Found");
+
+    private final String value;
+
+    PhraseResultOutcome(String value) {
+        this.value = value;
+    }
+
+}
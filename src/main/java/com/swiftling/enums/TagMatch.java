@@ -0,0 +1,33 @@
+package com.swiftling.enums;
+
+import com.swiftling.exception.UnknownTagMatchException;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Getter
+public enum TagMatch {
+
+    ANY("any"), ALL("all");
+
+    private final String value;
+
+    TagMatch(String value) {
+        this.value = value;
+    }
+
+    private static final Map<String,TagMatch> BY_VALUE =
+            Stream.of(values())
+                    .collect(Collectors.toMap(TagMatch::getValue, s -> s));
+
+    public static TagMatch findByValue(String value) {
+        TagMatch tagMatch = BY_VALUE.get(value);
+        if (tagMatch == null) {
+            throw new UnknownTagMatchException("Unknown Tag Match: " + value);
+        }
+        return tagMatch;
+    }
+
+}
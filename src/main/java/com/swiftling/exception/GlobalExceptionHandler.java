@@ -74,7 +74,9 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(exceptionWrapper);
     }
 
-    @ExceptionHandler({UnknownStatusException.class, UnknownLanguageException.class})
+    @ExceptionHandler({UnknownStatusException.class, UnknownLanguageException.class, InvalidCursorException.class,
+            InvalidImportFileException.class, UnknownExportFormatException.class, InvalidSearchQueryException.class,
+            UnknownTagMatchException.class})
     public ResponseEntity<ExceptionWrapper> handleUnknownValueExceptions(Throwable exception) {
         log.error(exception.getMessage());
         exception.printStackTrace();
@@ -0,0 +1,9 @@
+package com.swiftling.exception;
+
+public class InvalidSearchQueryException extends RuntimeException {
+
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+
+}
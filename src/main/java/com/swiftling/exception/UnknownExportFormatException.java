@@ -0,0 +1,9 @@
+package com.swiftling.exception;
+
+public class UnknownExportFormatException extends RuntimeException {
+
+    public UnknownExportFormatException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.swiftling.exception;
+
+public class UnknownTagMatchException extends RuntimeException {
+
+    public UnknownTagMatchException(String message) {
+        super(message);
+    }
+
+}
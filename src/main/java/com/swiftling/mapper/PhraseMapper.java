@@ -0,0 +1,72 @@
+package com.swiftling.mapper;
+
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.PhraseTag;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phrase &lt;-&gt; PhraseDTO mapping, generated by MapStruct at compile time (see {@code PhraseMapperImpl}).
+ * <p>
+ * Languages and statuses are exposed by their display values and tags are flattened to lower case names,
+ * so callers no longer have to patch these fields after the conversion.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface PhraseMapper {
+
+    PhraseDTO toPhraseDTO(Phrase phrase);
+
+    /**
+     * Maps a phrase with tag names that were loaded separately, without touching its lazy {@code phraseTags}.
+     */
+    @Mapping(target = "phraseTags", source = "tagNames")
+    PhraseDTO toPhraseDTO(Phrase phrase, List<String> tagNames);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "externalPhraseId", ignore = true)
+    @Mapping(target = "phraseTags", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "consecutiveCorrectAnswerAmount", ignore = true)
+    @Mapping(target = "ownerUserAccountId", ignore = true)
+    @Mapping(target = "insertDateTime", ignore = true)
+    @Mapping(target = "dueAt", ignore = true)
+    @Mapping(target = "reviewIntervalDays", ignore = true)
+    @Mapping(target = "easeFactor", ignore = true)
+    Phrase toPhrase(PhraseDTO phraseDTO);
+
+    default String toValue(Language language) {
+        return language != null ? language.getValue() : null;
+    }
+
+    default String toValue(Status status) {
+        return status != null ? status.getValue() : null;
+    }
+
+    default Language toLanguage(String languageCode) {
+        return languageCode != null ? Language.findByCode(languageCode.toLowerCase()) : null;
+    }
+
+    default List<String> toTagNames(List<PhraseTag> phraseTags) {
+
+        if (phraseTags == null) {
+            return new ArrayList<>();
+        }
+
+        List<String> tagNames = new ArrayList<>(phraseTags.size());
+
+        for (PhraseTag phraseTag : phraseTags) {
+            tagNames.add(phraseTag.getTag().getTagName().toLowerCase());
+        }
+
+        return tagNames;
+
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.swiftling.repository;
+
+import java.time.LocalDate;
+
+public interface DailyProgressView {
+    LocalDate getBucketDate();
+    Integer getLearned();
+    Integer getAdded();
+}
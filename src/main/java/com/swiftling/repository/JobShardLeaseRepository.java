@@ -0,0 +1,66 @@
+package com.swiftling.repository;
+
+import com.swiftling.entity.JobShardLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Repository
+public interface JobShardLeaseRepository extends JpaRepository<JobShardLease, Long> {
+
+    @Modifying
+    @Query("INSERT INTO JobShardLease (jobName, runDate, shard, leasedBy, leasedUntil) " +
+            "VALUES (:jobName, :runDate, :shard, :leasedBy, :leasedUntil)")
+    int insert(@Param("jobName") String jobName,
+                       @Param("runDate") LocalDate runDate,
+                       @Param("shard") int shard,
+                       @Param("leasedBy") String leasedBy,
+                       @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    @Modifying
+    @Query("UPDATE JobShardLease l SET l.leasedBy = :leasedBy, l.leasedUntil = :leasedUntil " +
+            "WHERE l.jobName = :jobName AND l.runDate = :runDate AND l.shard = :shard " +
+            "AND l.completedAt IS NULL AND l.leasedUntil < :now")
+    int takeOverExpired(@Param("jobName") String jobName,
+                        @Param("runDate") LocalDate runDate,
+                        @Param("shard") int shard,
+                        @Param("leasedBy") String leasedBy,
+                        @Param("leasedUntil") LocalDateTime leasedUntil,
+                        @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE JobShardLease l SET l.leasedUntil = :leasedUntil " +
+            "WHERE l.jobName = :jobName AND l.runDate = :runDate AND l.shard = :shard " +
+            "AND l.leasedBy = :leasedBy AND l.completedAt IS NULL")
+    int renew(@Param("jobName") String jobName,
+              @Param("runDate") LocalDate runDate,
+              @Param("shard") int shard,
+              @Param("leasedBy") String leasedBy,
+              @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    @Modifying
+    @Query("UPDATE JobShardLease l SET l.completedAt = :completedAt " +
+            "WHERE l.jobName = :jobName AND l.runDate = :runDate AND l.shard = :shard AND l.leasedBy = :leasedBy")
+    int complete(@Param("jobName") String jobName,
+                 @Param("runDate") LocalDate runDate,
+                 @Param("shard") int shard,
+                 @Param("leasedBy") String leasedBy,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    boolean existsByJobNameAndRunDate(String jobName, LocalDate runDate);
+
+    @Query("SELECT l.shard FROM JobShardLease l " +
+            "WHERE l.jobName = :jobName AND l.runDate = :runDate AND l.completedAt IS NOT NULL")
+    Set<Integer> findCompletedShards(@Param("jobName") String jobName, @Param("runDate") LocalDate runDate);
+
+    @Modifying
+    @Query("DELETE FROM JobShardLease l WHERE l.jobName = :jobName AND l.runDate < :runDate")
+    int deleteAllByJobNameAndRunDateBefore(@Param("jobName") String jobName, @Param("runDate") LocalDate runDate);
+
+}
@@ -0,0 +1,26 @@
+package com.swiftling.repository;
+
+import com.swiftling.entity.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+
+    /**
+     * Copies the outbox events with their current attempts and last error. The relay deletes them from the outbox in
+     * the same transaction.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO OutboxDeadLetter (id, eventType, topic, userAccountId, payload, createdAt, attempts, lastError, deadLetteredAt) " +
+            "SELECT e.id, e.eventType, e.topic, e.userAccountId, e.payload, e.createdAt, e.attempts, e.lastError, :deadLetteredAt " +
+            "FROM OutboxEvent e WHERE e.id IN :ids")
+    int insertFromOutbox(@Param("ids") Collection<Long> ids, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+
+}
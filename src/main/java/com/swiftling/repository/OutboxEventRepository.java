@@ -0,0 +1,35 @@
+package com.swiftling.repository;
+
+import com.swiftling.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest pending event of every user that is due, locked for the relay. Rows locked by another relay are
+     * skipped, and a user's later events wait until the earlier ones are gone, which keeps the per-user order
+     * across relays and retries.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.nextAttemptAt <= :now AND NOT EXISTS (" +
+            "SELECT 1 FROM OutboxEvent o WHERE o.userAccountId = e.userAccountId AND o.id < e.id) " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findDueHeads(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    LocalDateTime findOldestCreatedAt();
+
+}
@@ -2,8 +2,6 @@ package com.swiftling.repository;
 
 import java.util.UUID;
 
-public interface GroupedProgressView {
+public interface OwnerProgressView extends UserProgressView {
     UUID getOwnerUserAccountId();
-    Integer getLearned();
-    Integer getAdded();
 }
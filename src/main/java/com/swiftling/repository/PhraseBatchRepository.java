@@ -0,0 +1,153 @@
+package com.swiftling.repository;
+
+import com.swiftling.entity.Phrase;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Plain JDBC batch statements for bulk writes. Hibernate does not batch inserts of {@code IDENTITY} entities,
+ * so these statements are sent as JDBC batches instead. They join the surrounding transaction.
+ */
+@Repository
+public class PhraseBatchRepository {
+
+    private static final String INSERT_PHRASE = """
+            INSERT INTO phrases (external_phrase_id, original_phrase, original_language, meaning, meaning_language,
+                                 status, notes, consecutive_correct_answer_amount, owner_user_account_id, insert_date_time,
+                                 due_at, review_interval_days, ease_factor)
+            VALUES (:externalPhraseId, :originalPhrase, :originalLanguage, :meaning, :meaningLanguage,
+                    :status, :notes, :consecutiveCorrectAnswerAmount, :ownerUserAccountId, :insertDateTime,
+                    :dueAt, :reviewIntervalDays, :easeFactor)
+            """;
+
+    /**
+     * The only unique constraint besides the primary key is (owner_user_account_id, tag_name), so a tag inserted
+     * concurrently by another transaction is skipped instead of failing the batch.
+     */
+    private static final String INSERT_TAG = """
+            INSERT INTO tags (tag_name, owner_user_account_id) VALUES (:tagName, :ownerUserAccountId)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String INSERT_PHRASE_TAG = """
+            INSERT INTO phrase_tags (phrase_id, tag_id) VALUES (:phraseId, :tagId)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PhraseBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the phrases and returns their generated IDs by external phrase ID.
+     */
+    public Map<UUID, Long> insertPhrases(List<Phrase> phrases) {
+
+        if (phrases.isEmpty()) {
+            return Map.of();
+        }
+
+        SqlParameterSource[] parameters = phrases.stream()
+                .map(phrase -> new MapSqlParameterSource()
+                        .addValue("externalPhraseId", phrase.getExternalPhraseId())
+                        .addValue("originalPhrase", phrase.getOriginalPhrase())
+                        .addValue("originalLanguage", phrase.getOriginalLanguage().name())
+                        .addValue("meaning", phrase.getMeaning())
+                        .addValue("meaningLanguage", phrase.getMeaningLanguage().name())
+                        .addValue("status", phrase.getStatus().name())
+                        .addValue("notes", phrase.getNotes())
+                        .addValue("consecutiveCorrectAnswerAmount", phrase.getConsecutiveCorrectAnswerAmount())
+                        .addValue("ownerUserAccountId", phrase.getOwnerUserAccountId())
+                        .addValue("insertDateTime", phrase.getInsertDateTime())
+                        .addValue("dueAt", phrase.getDueAt())
+                        .addValue("reviewIntervalDays", phrase.getReviewIntervalDays())
+                        .addValue("easeFactor", phrase.getEaseFactor()))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(INSERT_PHRASE, parameters);
+
+        Map<UUID, Long> phraseIds = HashMap.newHashMap(phrases.size());
+
+        jdbcTemplate.query("SELECT id, external_phrase_id FROM phrases WHERE external_phrase_id IN (:externalPhraseIds)",
+                Map.of("externalPhraseIds", phrases.stream().map(Phrase::getExternalPhraseId).toList()),
+                resultSet -> {
+                    phraseIds.put(resultSet.getObject("external_phrase_id", UUID.class), resultSet.getLong("id"));
+                });
+
+        return phraseIds;
+
+    }
+
+    /**
+     * Returns the IDs of the owner's tags with the given (lower case) names, inserting the missing tags first.
+     */
+    public Map<String, Long> findOrInsertTags(UUID ownerUserAccountId, Set<String> tagNames) {
+
+        if (tagNames.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Long> tagIds = findTagIds(ownerUserAccountId, tagNames);
+
+        List<String> missingTagNames = tagNames.stream()
+                .filter(tagName -> !tagIds.containsKey(tagName))
+                .toList();
+
+        if (!missingTagNames.isEmpty()) {
+            insertTags(ownerUserAccountId, missingTagNames);
+            tagIds.putAll(findTagIds(ownerUserAccountId, tagNames));
+        }
+
+        return tagIds;
+
+    }
+
+    /**
+     * Inserts the owner's tags with the given (lower case) names as one batch, skipping the ones that already exist.
+     */
+    public void insertTags(UUID ownerUserAccountId, Collection<String> tagNames) {
+
+        SqlParameterSource[] parameters = tagNames.stream()
+                .map(tagName -> new MapSqlParameterSource()
+                        .addValue("tagName", tagName)
+                        .addValue("ownerUserAccountId", ownerUserAccountId))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(INSERT_TAG, parameters);
+
+    }
+
+    public void insertPhraseTags(Map<Long, ? extends Collection<Long>> tagIdsByPhraseId) {
+
+        List<SqlParameterSource> parameters = new ArrayList<>();
+
+        tagIdsByPhraseId.forEach((phraseId, tagIds) -> tagIds.forEach(tagId -> parameters.add(new MapSqlParameterSource()
+                .addValue("phraseId", phraseId)
+                .addValue("tagId", tagId))));
+
+        if (!parameters.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PHRASE_TAG, parameters.toArray(SqlParameterSource[]::new));
+        }
+
+    }
+
+    private Map<String, Long> findTagIds(UUID ownerUserAccountId, Set<String> tagNames) {
+
+        Map<String, Long> tagIds = new HashMap<>();
+
+        jdbcTemplate.query("SELECT id, tag_name FROM tags WHERE owner_user_account_id = :ownerUserAccountId AND tag_name IN (:tagNames)",
+                Map.of("ownerUserAccountId", ownerUserAccountId, "tagNames", tagNames),
+                resultSet -> {
+                    tagIds.put(resultSet.getString("tag_name"), resultSet.getLong("id"));
+                });
+
+        return tagIds;
+
+    }
+
+}
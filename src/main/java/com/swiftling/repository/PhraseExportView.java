@@ -0,0 +1,18 @@
+package com.swiftling.repository;
+
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+
+import java.util.UUID;
+
+public interface PhraseExportView {
+    Long getPhraseId();
+    UUID getExternalPhraseId();
+    String getOriginalPhrase();
+    Language getOriginalLanguage();
+    String getMeaning();
+    Language getMeaningLanguage();
+    Status getStatus();
+    String getNotes();
+    String getTagName();
+}
@@ -2,24 +2,73 @@ package com.swiftling.repository;
 
 import com.swiftling.entity.Phrase;
 import com.swiftling.enums.Language;
-import com.swiftling.enums.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PhraseRepository extends JpaRepository<Phrase, Long> {
 
+    /**
+     * Phrases of the owner linked to at least {@code :requiredTagCount} of the (lower case) {@code :tagNames}: 1 for
+     * any of them, all of them otherwise. Resolved from the tag names through the (owner, tag name) and
+     * (tag, phrase) indexes, so only the phrases with those tags are read.
+     */
+    String TAG_FILTER = """
+             AND id IN (
+                   SELECT pt.phrase_id
+                     FROM tags t
+                     JOIN phrase_tags pt ON pt.tag_id = t.id
+                    WHERE t.owner_user_account_id = :ownerUserAccountId
+                    AND t.tag_name IN (:tagNames)
+                    GROUP BY pt.phrase_id
+                   HAVING COUNT(*) >= :requiredTagCount
+             )
+            """;
+
+    String FIND_ALL_BY_TAGS = """
+            SELECT * FROM phrases
+             WHERE owner_user_account_id = :ownerUserAccountId
+             AND (:status IS NULL OR status = :status)
+             AND (
+                   :language IS NULL OR original_language = :language OR meaning_language = :language
+             )
+            """ + TAG_FILTER;
+
+    String FIND_FIRST_PAGE_BY_TAGS = FIND_ALL_BY_TAGS + """
+             ORDER BY insert_date_time DESC, id DESC
+             LIMIT :limit
+            """;
+
+    String FIND_NEXT_PAGE_BY_TAGS = FIND_ALL_BY_TAGS + """
+             AND (insert_date_time, id) < (:cursorInsertDateTime, :cursorId)
+             ORDER BY insert_date_time DESC, id DESC
+             LIMIT :limit
+            """;
+
     Optional<Phrase> findByOriginalPhraseAndOwnerUserAccountId(String originalPhrase, UUID ownerUserAccountId);
 
     Optional<Phrase> findByExternalPhraseIdAndOwnerUserAccountId(UUID externalPhraseId, UUID ownerUserAccountId);
 
+    @Query("SELECT p.originalPhrase FROM Phrase p WHERE p.ownerUserAccountId = :ownerUserAccountId AND p.originalPhrase IN :originalPhrases")
+    Set<String> findExistingOriginalPhrases(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                            @Param("originalPhrases") Collection<String> originalPhrases);
+
+    List<Phrase> findAllByExternalPhraseIdInAndOwnerUserAccountId(Collection<UUID> externalPhraseIds, UUID ownerUserAccountId);
+
     @Query(value = """
             SELECT * FROM phrases
              WHERE owner_user_account_id = :ownerUserAccountId
@@ -32,7 +81,69 @@ public interface PhraseRepository extends JpaRepository<Phrase, Long> {
                                                                  @Param("status") String status,
                                                                  @Param("language") String language);
 
+    @Query(value = """
+            SELECT * FROM phrases
+             WHERE owner_user_account_id = :ownerUserAccountId
+             AND (:status IS NULL OR status = :status)
+             AND (
+                   :language IS NULL OR original_language = :language OR meaning_language = :language
+             )
+             ORDER BY insert_date_time DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Phrase> findFirstPageByOwnerUserAccountIdAndOrStatusAndOrLanguage(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                                                       @Param("status") String status,
+                                                                       @Param("language") String language,
+                                                                       @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM phrases
+             WHERE owner_user_account_id = :ownerUserAccountId
+             AND (:status IS NULL OR status = :status)
+             AND (
+                   :language IS NULL OR original_language = :language OR meaning_language = :language
+             )
+             AND (insert_date_time, id) < (:cursorInsertDateTime, :cursorId)
+             ORDER BY insert_date_time DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Phrase> findNextPageByOwnerUserAccountIdAndOrStatusAndOrLanguage(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                                                      @Param("status") String status,
+                                                                      @Param("language") String language,
+                                                                      @Param("cursorInsertDateTime") LocalDateTime cursorInsertDateTime,
+                                                                      @Param("cursorId") Long cursorId,
+                                                                      @Param("limit") int limit);
+
+    @Query(value = FIND_ALL_BY_TAGS, nativeQuery = true)
+    List<Phrase> findAllByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                                                        @Param("status") String status,
+                                                                        @Param("language") String language,
+                                                                        @Param("tagNames") Collection<String> tagNames,
+                                                                        @Param("requiredTagCount") int requiredTagCount);
+
+    @Query(value = FIND_FIRST_PAGE_BY_TAGS, nativeQuery = true)
+    List<Phrase> findFirstPageByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                                                              @Param("status") String status,
+                                                                              @Param("language") String language,
+                                                                              @Param("tagNames") Collection<String> tagNames,
+                                                                              @Param("requiredTagCount") int requiredTagCount,
+                                                                              @Param("limit") int limit);
+
+    @Query(value = FIND_NEXT_PAGE_BY_TAGS, nativeQuery = true)
+    List<Phrase> findNextPageByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                                                             @Param("status") String status,
+                                                                             @Param("language") String language,
+                                                                             @Param("tagNames") Collection<String> tagNames,
+                                                                             @Param("requiredTagCount") int requiredTagCount,
+                                                                             @Param("cursorInsertDateTime") LocalDateTime cursorInsertDateTime,
+                                                                             @Param("cursorId") Long cursorId,
+                                                                             @Param("limit") int limit);
+
     List<Phrase> findTop10ByOwnerUserAccountIdOrderByInsertDateTimeDesc(UUID ownerUserAccountId);
+
+    List<Phrase> findByOwnerUserAccountIdOrderByDueAtAsc(UUID ownerUserAccountId, Limit limit);
+
+    List<Phrase> findByOwnerUserAccountIdAndOriginalLanguageOrderByDueAtAsc(UUID ownerUserAccountId, Language originalLanguage, Limit limit);
     
     @Query(value = """
             SELECT DISTINCT language FROM (
@@ -45,27 +156,91 @@ public interface PhraseRepository extends JpaRepository<Phrase, Long> {
             """, nativeQuery = true)
     List<Language> findAllDistinctLanguages(@Param("ownerUserAccountId") UUID ownerUserAccountId);
 
-    Integer countAllByOwnerUserAccountIdAndStatus(UUID ownerUserAccountId, Status status);
+    @Query("SELECT CAST(p.insertDateTime AS LocalDate) AS bucketDate, " +
+            "SUM(CASE WHEN p.status = 'LEARNED' THEN 1 ELSE 0 END) AS learned, " +
+            "COUNT(p) AS added " +
+            "FROM Phrase p WHERE p.ownerUserAccountId = :ownerUserAccountId " +
+            "GROUP BY CAST(p.insertDateTime AS LocalDate)")
+    List<DailyProgressView> getDailyProgress(@Param("ownerUserAccountId") UUID ownerUserAccountId);
 
-    Integer countAllByOwnerUserAccountId(UUID ownerUserAccountId);
+    @Query("SELECT DISTINCT p.ownerUserAccountId FROM Phrase p")
+    List<UUID> findAllOwnerUserAccountIds();
 
-    Integer countAllByOwnerUserAccountIdAndStatusAndInsertDateTimeAfter(UUID ownerUserAccountId, Status status, LocalDateTime insertDateTime);
+    List<Phrase> findAllByOwnerUserAccountId(UUID ownerUserAccountId);
 
-    Integer countAllByOwnerUserAccountIdAndInsertDateTimeAfter(UUID ownerUserAccountId, LocalDateTime insertDateTime);
+    /**
+     * One row per phrase and tag, ordered by phrase, so the rows of a phrase arrive together. The rows are scalar
+     * projections and are fetched from a forward-only cursor; the stream must be consumed in a read-only transaction.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query("SELECT p.id AS phraseId, p.externalPhraseId AS externalPhraseId, p.originalPhrase AS originalPhrase, " +
+            "p.originalLanguage AS originalLanguage, p.meaning AS meaning, p.meaningLanguage AS meaningLanguage, " +
+            "p.status AS status, p.notes AS notes, t.tagName AS tagName " +
+            "FROM Phrase p LEFT JOIN p.phraseTags pt LEFT JOIN pt.tag t " +
+            "WHERE p.ownerUserAccountId = :ownerUserAccountId ORDER BY p.id")
+    Stream<PhraseExportView> streamExportRows(@Param("ownerUserAccountId") UUID ownerUserAccountId);
 
-    @Query("SELECT p.ownerUserAccountId AS ownerUserAccountId, " +
-            "SUM(CASE WHEN p.status = 'LEARNED' THEN 1 ELSE 0 END) AS learned, " +
-            "COUNT(p) AS added " +
-            "FROM Phrase p GROUP BY p.ownerUserAccountId")
-    List<GroupedProgressView> getTotalProgressForAllUsers();
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query("SELECT p.id AS phraseId, p.status AS status, p.originalLanguage AS originalLanguage, " +
+            "p.consecutiveCorrectAnswerAmount AS consecutiveCorrectAnswerAmount, t.tagName AS tagName " +
+            "FROM Phrase p LEFT JOIN p.phraseTags pt LEFT JOIN pt.tag t " +
+            "WHERE p.ownerUserAccountId = :ownerUserAccountId ORDER BY p.id")
+    Stream<QuizCandidateView> streamQuizCandidates(@Param("ownerUserAccountId") UUID ownerUserAccountId);
 
-    @Query("SELECT p.ownerUserAccountId AS ownerUserAccountId, " +
-            "SUM(CASE WHEN p.status = 'LEARNED' AND p.insertDateTime >= :startDate THEN 1 ELSE 0 END) AS learned, " +
-            "SUM(CASE WHEN p.insertDateTime >= :startDate THEN 1 ELSE 0 END) AS added " +
-            "FROM Phrase p WHERE p.insertDateTime >= :startDate " +
-            "GROUP BY p.ownerUserAccountId")
-    List<GroupedProgressView> getProgressSince(@Param("startDate") LocalDateTime startDate);
+    /**
+     * PostgreSQL only, so the build never runs it (the embedded database is searched in process). Every term of the
+     * space separated {@code query} must match a word it is a prefix of, or a word it is similar to ({@code <%}, word
+     * similarity of at least {@code pg_trgm.word_similarity_threshold}). {@code leadTerm} selects the candidates
+     * through the full-text and trigram indexes and the other terms are checked on those only; {@code prefixQuery}
+     * (the terms as prefixes joined by {@code &}) is used for ranking. The document expression must stay identical
+     * to the one of {@code idx_phrases_search_document}.
+     */
+    @Query(value = """
+            SELECT p.id
+              FROM phrases p
+             WHERE p.owner_user_account_id = :ownerUserAccountId
+             AND (
+                   to_tsvector('simple', p.original_phrase || ' ' || p.meaning || ' ' || coalesce(p.notes, ''))
+                       @@ to_tsquery('simple', :leadTerm || ':*')
+                   OR :leadTerm <% p.original_phrase
+                   OR :leadTerm <% p.meaning
+                   OR :leadTerm <% p.notes
+             )
+             AND NOT EXISTS (
+                   SELECT 1
+                     FROM unnest(string_to_array(:query, ' ')) AS t(term)
+                    WHERE NOT (
+                          to_tsvector('simple', p.original_phrase || ' ' || p.meaning || ' ' || coalesce(p.notes, ''))
+                              @@ to_tsquery('simple', t.term || ':*')
+                          OR t.term <% p.original_phrase
+                          OR t.term <% p.meaning
+                          OR t.term <% coalesce(p.notes, '')
+                    )
+             )
+             ORDER BY ts_rank(to_tsvector('simple', p.original_phrase || ' ' || p.meaning || ' ' || coalesce(p.notes, '')),
+                              to_tsquery('simple', :prefixQuery))
+                      + GREATEST(word_similarity(:query, p.original_phrase),
+                                 word_similarity(:query, p.meaning),
+                                 0.5 * word_similarity(:query, coalesce(p.notes, ''))) DESC,
+                      p.id DESC
+             LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Long> searchPhraseIds(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                               @Param("leadTerm") String leadTerm,
+                               @Param("prefixQuery") String prefixQuery,
+                               @Param("query") String query,
+                               @Param("limit") int limit,
+                               @Param("offset") int offset);
 
-    List<Phrase> findAllByOwnerUserAccountId(UUID ownerUserAccountId);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query("SELECT p.id AS phraseId, p.originalPhrase AS originalPhrase, p.meaning AS meaning, p.notes AS notes " +
+            "FROM Phrase p WHERE p.ownerUserAccountId = :ownerUserAccountId")
+    Stream<PhraseSearchView> streamSearchDocuments(@Param("ownerUserAccountId") UUID ownerUserAccountId);
 
 }
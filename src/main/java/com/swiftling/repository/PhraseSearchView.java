@@ -0,0 +1,8 @@
+package com.swiftling.repository;
+
+public interface PhraseSearchView {
+    Long getPhraseId();
+    String getOriginalPhrase();
+    String getMeaning();
+    String getNotes();
+}
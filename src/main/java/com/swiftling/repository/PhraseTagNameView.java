@@ -0,0 +1,6 @@
+package com.swiftling.repository;
+
+public interface PhraseTagNameView {
+    Long getPhraseId();
+    String getTagName();
+}
@@ -0,0 +1,12 @@
+package com.swiftling.repository;
+
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+
+public interface QuizCandidateView {
+    Long getPhraseId();
+    Status getStatus();
+    Language getOriginalLanguage();
+    Integer getConsecutiveCorrectAnswerAmount();
+    String getTagName();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,15 +28,26 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     Optional<Tag> findByOwnerUserAccountIdAndTagName(UUID ownerUserAccountId, String tagName);
 
+    List<Tag> findAllByOwnerUserAccountIdAndTagNameIn(UUID ownerUserAccountId, Collection<String> tagNames);
+
     @Query("""
-        SELECT DISTINCT t
+        SELECT DISTINCT LOWER(t.tagName)
           FROM Tag t
           JOIN t.phraseTags pt
           JOIN pt.phrase p
          WHERE p.ownerUserAccountId = :ownerId
         """)
-    List<Tag> findAllByPhraseOwner(@Param("ownerId") UUID ownerId);
+    List<String> findTagNamesByPhraseOwner(@Param("ownerId") UUID ownerId);
 
     List<Tag> findAllByOwnerUserAccountId(UUID externalOwnerUserAccountId);
 
+    @Query("""
+        SELECT pt.phrase.id AS phraseId, t.tagName AS tagName
+          FROM PhraseTag pt
+          JOIN pt.tag t
+         WHERE pt.phrase.id IN :phraseIds
+         ORDER BY pt.id
+        """)
+    List<PhraseTagNameView> findTagNamesByPhraseIds(@Param("phraseIds") Collection<Long> phraseIds);
+
 }
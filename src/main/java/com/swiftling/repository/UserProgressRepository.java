@@ -0,0 +1,108 @@
+package com.swiftling.repository;
+
+import com.swiftling.entity.UserProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserProgressRepository extends JpaRepository<UserProgress, Long> {
+
+    /**
+     * PostgreSQL only. Adds the deltas to the bucket, creating it first if needed, as one statement: a concurrent
+     * insert of the same bucket waits on the unique constraint and is then applied as an update.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_progress (owner_user_account_id, bucket_date, learned, added) " +
+            "VALUES (:ownerUserAccountId, :bucketDate, :learned, :added) " +
+            "ON CONFLICT (owner_user_account_id, bucket_date) DO UPDATE " +
+            "SET learned = user_progress.learned + EXCLUDED.learned, added = user_progress.added + EXCLUDED.added",
+            nativeQuery = true)
+    int upsert(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+               @Param("bucketDate") LocalDate bucketDate,
+               @Param("learned") int learned,
+               @Param("added") int added);
+
+    /**
+     * Creates an empty bucket unless it exists, for databases without {@code ON CONFLICT ... DO UPDATE}. Followed by
+     * {@link #increment}, which then always finds the row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_progress (owner_user_account_id, bucket_date, learned, added) " +
+            "VALUES (:ownerUserAccountId, :bucketDate, 0, 0) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                       @Param("bucketDate") LocalDate bucketDate);
+
+    @Modifying
+    @Query("UPDATE UserProgress u SET u.learned = u.learned + :learned, u.added = u.added + :added " +
+            "WHERE u.ownerUserAccountId = :ownerUserAccountId AND u.bucketDate = :bucketDate")
+    int increment(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                  @Param("bucketDate") LocalDate bucketDate,
+                  @Param("learned") int learned,
+                  @Param("added") int added);
+
+    @Query("SELECT COALESCE(SUM(u.learned), 0) AS totalLearned, " +
+            "COALESCE(SUM(u.added), 0) AS totalAdded, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :monthStart THEN u.learned ELSE 0 END), 0) AS monthlyLearned, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :monthStart THEN u.added ELSE 0 END), 0) AS monthlyAdded, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :weekStart THEN u.learned ELSE 0 END), 0) AS weeklyLearned, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :weekStart THEN u.added ELSE 0 END), 0) AS weeklyAdded, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :dayStart THEN u.learned ELSE 0 END), 0) AS dailyLearned, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :dayStart THEN u.added ELSE 0 END), 0) AS dailyAdded " +
+            "FROM UserProgress u WHERE u.ownerUserAccountId = :ownerUserAccountId")
+    UserProgressView getProgress(@Param("ownerUserAccountId") UUID ownerUserAccountId,
+                                 @Param("monthStart") LocalDate monthStart,
+                                 @Param("weekStart") LocalDate weekStart,
+                                 @Param("dayStart") LocalDate dayStart);
+
+    /**
+     * All four progress windows of the next {@code limit} owners in ({@code afterOwnerUserAccountId},
+     * {@code upToOwnerUserAccountId}], in owner order, so callers can walk an owner range in bounded chunks.
+     */
+    @Query("SELECT u.ownerUserAccountId AS ownerUserAccountId, " +
+            "COALESCE(SUM(u.learned), 0) AS totalLearned, " +
+            "COALESCE(SUM(u.added), 0) AS totalAdded, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :monthStart THEN u.learned ELSE 0 END), 0) AS monthlyLearned, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :monthStart THEN u.added ELSE 0 END), 0) AS monthlyAdded, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :weekStart THEN u.learned ELSE 0 END), 0) AS weeklyLearned, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :weekStart THEN u.added ELSE 0 END), 0) AS weeklyAdded, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :dayStart THEN u.learned ELSE 0 END), 0) AS dailyLearned, " +
+            "COALESCE(SUM(CASE WHEN u.bucketDate >= :dayStart THEN u.added ELSE 0 END), 0) AS dailyAdded " +
+            "FROM UserProgress u WHERE u.ownerUserAccountId > :afterOwnerUserAccountId " +
+            "AND u.ownerUserAccountId <= :upToOwnerUserAccountId " +
+            "GROUP BY u.ownerUserAccountId ORDER BY u.ownerUserAccountId")
+    List<OwnerProgressView> getProgressPage(@Param("afterOwnerUserAccountId") UUID afterOwnerUserAccountId,
+                                            @Param("upToOwnerUserAccountId") UUID upToOwnerUserAccountId,
+                                            @Param("monthStart") LocalDate monthStart,
+                                            @Param("weekStart") LocalDate weekStart,
+                                            @Param("dayStart") LocalDate dayStart,
+                                            Limit limit);
+
+    List<UserProgress> findAllByOwnerUserAccountId(UUID ownerUserAccountId);
+
+    /**
+     * The owner's buckets, locked until the end of the transaction, so counter updates of concurrent writers wait
+     * for a rebuild that overwrites them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UserProgress u WHERE u.ownerUserAccountId = :ownerUserAccountId")
+    List<UserProgress> findAllForUpdateByOwnerUserAccountId(@Param("ownerUserAccountId") UUID ownerUserAccountId);
+
+    @Query("SELECT DISTINCT u.ownerUserAccountId FROM UserProgress u")
+    List<UUID> findAllOwnerUserAccountIds();
+
+    @Modifying
+    @Query("DELETE FROM UserProgress u WHERE u.ownerUserAccountId = :ownerUserAccountId")
+    void deleteAllByOwnerUserAccountId(@Param("ownerUserAccountId") UUID ownerUserAccountId);
+
+}
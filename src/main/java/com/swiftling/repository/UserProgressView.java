@@ -0,0 +1,12 @@
+package com.swiftling.repository;
+
+public interface UserProgressView {
+    Integer getTotalLearned();
+    Integer getTotalAdded();
+    Integer getMonthlyLearned();
+    Integer getMonthlyAdded();
+    Integer getWeeklyLearned();
+    Integer getWeeklyAdded();
+    Integer getDailyLearned();
+    Integer getDailyAdded();
+}
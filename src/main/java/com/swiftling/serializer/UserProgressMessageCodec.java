@@ -0,0 +1,95 @@
+package com.swiftling.serializer;
+
+import com.swiftling.dto.ProgressDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fixed-layout binary encoding of {@link UserProgressMessageDTO}, 58 bytes per message (big-endian):
+ * <pre>
+ *  0  magic            1 byte   0x53 ('S')
+ *  1  version          1 byte   {@link #VERSION}
+ *  2  userAccountId   16 bytes  most / least significant bits
+ * 18  timestamp        8 bytes  epoch millis of the LocalDateTime read as UTC
+ * 26  progress        32 bytes  learned / added int pairs for total, monthly, weekly and daily progress
+ * </pre>
+ * A window that is missing from the message is written as -1 / -1. New fields must be appended in a new version;
+ * decoders reject versions they do not know instead of guessing.
+ */
+public final class UserProgressMessageCodec {
+
+    public static final byte MAGIC = 0x53;
+    public static final byte VERSION = 1;
+    public static final int MESSAGE_LENGTH = 58;
+    public static final String CONTENT_TYPE = "application/vnd.swiftling.user-progress.v1+binary";
+
+    private static final String[] WINDOWS = {"total-progress", "monthly-progress", "weekly-progress", "daily-progress"};
+    private static final int MISSING = -1;
+
+    private UserProgressMessageCodec() {
+    }
+
+    public static byte[] encode(UserProgressMessageDTO message) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_LENGTH);
+
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+
+        UUID userAccountId = message.getUserAccountId();
+        buffer.putLong(userAccountId.getMostSignificantBits());
+        buffer.putLong(userAccountId.getLeastSignificantBits());
+
+        buffer.putLong(message.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        Map<String, ProgressDTO> progress = message.getProgress() != null ? message.getProgress() : Map.of();
+
+        for (String window : WINDOWS) {
+            ProgressDTO windowProgress = progress.get(window);
+            buffer.putInt(windowProgress != null && windowProgress.getLearned() != null ? windowProgress.getLearned() : MISSING);
+            buffer.putInt(windowProgress != null && windowProgress.getAdded() != null ? windowProgress.getAdded() : MISSING);
+        }
+
+        return buffer.array();
+
+    }
+
+    public static UserProgressMessageDTO decode(byte[] data) {
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        if (data.length < 2 || buffer.get() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary user progress message.");
+        }
+
+        byte version = buffer.get();
+
+        if (version != VERSION || data.length != MESSAGE_LENGTH) {
+            throw new IllegalArgumentException("Unsupported user progress message version " + version + " (" + data.length + " bytes).");
+        }
+
+        UUID userAccountId = new UUID(buffer.getLong(), buffer.getLong());
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong()), ZoneOffset.UTC);
+
+        Map<String, ProgressDTO> progress = HashMap.newHashMap(WINDOWS.length);
+
+        for (String window : WINDOWS) {
+            int learned = buffer.getInt();
+            int added = buffer.getInt();
+            if (learned != MISSING || added != MISSING) {
+                progress.put(window, new ProgressDTO(learned, added));
+            }
+        }
+
+        return new UserProgressMessageDTO(userAccountId, progress, timestamp);
+
+    }
+
+}
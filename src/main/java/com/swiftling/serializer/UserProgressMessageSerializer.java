@@ -0,0 +1,51 @@
+package com.swiftling.serializer;
+
+import com.swiftling.dto.UserProgressMessageDTO;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes {@link UserProgressMessageDTO} values with {@link UserProgressMessageCodec} and tags the record with a
+ * {@code content-type} header carrying the layout version. Any other value is delegated to {@link JsonSerializer}.
+ */
+public class UserProgressMessageSerializer implements Serializer<Object> {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data instanceof UserProgressMessageDTO message
+                ? UserProgressMessageCodec.encode(message)
+                : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+
+        if (data instanceof UserProgressMessageDTO message) {
+            headers.remove(CONTENT_TYPE_HEADER);
+            headers.add(CONTENT_TYPE_HEADER, UserProgressMessageCodec.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+            return UserProgressMessageCodec.encode(message);
+        }
+
+        return jsonSerializer.serialize(topic, headers, data);
+
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.swiftling.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+public interface ConcurrentTaskService {
+
+    boolean isEnabled();
+
+    <T> Future<T> submit(Callable<T> task);
+
+    <T> T join(Future<T> future);
+
+}
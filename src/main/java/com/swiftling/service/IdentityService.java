@@ -0,0 +1,11 @@
+package com.swiftling.service;
+
+import java.util.UUID;
+
+public interface IdentityService {
+
+    UUID getOwnerUserAccountId();
+
+    void prefetchOwnerUserAccountId();
+
+}
@@ -0,0 +1,22 @@
+package com.swiftling.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public interface JobLeaseService {
+
+    String getInstanceId();
+
+    boolean tryAcquire(String jobName, LocalDate runDate, int shard);
+
+    boolean renew(String jobName, LocalDate runDate, int shard);
+
+    void complete(String jobName, LocalDate runDate, int shard);
+
+    boolean hasStarted(String jobName, LocalDate runDate);
+
+    Set<Integer> findCompletedShards(String jobName, LocalDate runDate);
+
+    void purgeOldRuns(String jobName, LocalDate runDate);
+
+}
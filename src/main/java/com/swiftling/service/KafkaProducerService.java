@@ -1,8 +1,14 @@
 package com.swiftling.service;
 
 import com.swiftling.dto.UserProgressMessageDTO;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface KafkaProducerService {
 
     void sendUserProgressMessage(UserProgressMessageDTO userProgressMessageDTO);
-}
\ No newline at end of file
+
+    CompletableFuture<SendResult<String, Object>> send(String topic, UUID userAccountId, Object message);
+}
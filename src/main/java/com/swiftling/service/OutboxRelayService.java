@@ -0,0 +1,10 @@
+package com.swiftling.service;
+
+public interface OutboxRelayService {
+
+    /**
+     * Sends one batch of due outbox events and returns how many events it contained.
+     */
+    int relayBatch();
+
+}
@@ -0,0 +1,12 @@
+package com.swiftling.service;
+
+import com.swiftling.dto.PhraseChangeMessageDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+
+public interface OutboxService {
+
+    void enqueueUserProgressMessage(UserProgressMessageDTO userProgressMessageDTO);
+
+    void enqueuePhraseChangeMessage(PhraseChangeMessageDTO phraseChangeMessageDTO);
+
+}
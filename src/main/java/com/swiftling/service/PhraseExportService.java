@@ -0,0 +1,10 @@
+package com.swiftling.service;
+
+import com.swiftling.enums.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface PhraseExportService {
+
+    StreamingResponseBody exportPhrases(ExportFormat exportFormat);
+
+}
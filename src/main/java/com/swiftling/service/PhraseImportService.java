@@ -0,0 +1,12 @@
+package com.swiftling.service;
+
+import com.swiftling.dto.PhraseImportReportDTO;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+
+public interface PhraseImportService {
+
+    PhraseImportReportDTO importPhrases(InputStream content, MediaType contentType);
+
+}
@@ -0,0 +1,10 @@
+package com.swiftling.service;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PhraseSearchService {
+
+    List<Long> search(UUID ownerUserAccountId, String query, int offset, int limit);
+
+}
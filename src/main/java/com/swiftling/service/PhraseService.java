@@ -1,9 +1,13 @@
 package com.swiftling.service;
 
 import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.PhrasePageDTO;
 import com.swiftling.dto.PhraseResultDTO;
+import com.swiftling.dto.PhraseResultReportDTO;
 import com.swiftling.dto.ProgressDTO;
+import com.swiftling.dto.PronunciationDTO;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,7 +17,10 @@ public interface PhraseService {
 
     PhraseDTO create(PhraseDTO phraseDTO);
 
-    List<PhraseDTO> getPhrases(String status, String languageCode);
+    List<PhraseDTO> getPhrases(String status, String languageCode, List<String> tagNames, String tagMatch);
+
+    PhrasePageDTO getPhrasePage(String status, String languageCode, List<String> tagNames, String tagMatch,
+                                String cursor, Integer pageSize, Set<String> fields);
 
     List<PhraseDTO> getLastTenPhrases();
 
@@ -23,22 +30,32 @@ public interface PhraseService {
 
     List<String> getQuizLanguages();
 
+    List<PhraseDTO> getNextQuizBatch(String languageCode, Integer batchSize);
+
+    List<PhraseDTO> getRandomQuiz(String status, String languageCode, String tagName, Integer size);
+
+    PhrasePageDTO search(String query, String cursor, Integer pageSize);
+
     Set<String> getTags();
 
     PhraseDTO update(UUID externalPhraseId, PhraseDTO phraseDTO);
 
-    void updateStatuses(Map<UUID, PhraseResultDTO> resultForEachPhrase);
+    List<PhraseResultReportDTO> updateStatuses(Map<UUID, PhraseResultDTO> resultForEachPhrase);
 
     void delete(UUID externalPhraseId);
 
     void deleteAllByUser(UUID externalOwnerUserAccountId);
 
-    void originalPhraseSynthesizeSpeech(UUID externalPhraseId, String outputFileName) throws Exception;
+    PronunciationDTO getOriginalPronunciation(UUID externalPhraseId);
+
+    PronunciationDTO getMeaningPronunciation(UUID externalPhraseId);
+
+    String getOriginalPronunciationETag(UUID externalPhraseId);
 
-    void meaningPhraseSynthesizeSpeech(UUID externalPhraseId, String outputFileName) throws Exception;
+    String getMeaningPronunciationETag(UUID externalPhraseId);
 
     Map<String, ProgressDTO> getProgress();
 
-    Map<UUID, Map<String, ProgressDTO>> getAllUsersProgress();
+    LinkedHashMap<UUID, Map<String, ProgressDTO>> getUsersProgressPage(UUID afterUserAccountId, UUID upToUserAccountId, int pageSize);
 
 }
@@ -0,0 +1,26 @@
+package com.swiftling.service;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.enums.Status;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+public interface ProgressCounterService {
+
+    void recordAdded(Phrase phrase);
+
+    void recordAdded(UUID ownerUserAccountId, LocalDate bucketDate, int addedCount);
+
+    void recordRemoved(Phrase phrase);
+
+    void recordStatusChanges(Map<Phrase, Status> previousStatuses);
+
+    void deleteAllByUser(UUID ownerUserAccountId);
+
+    void rebuild(UUID ownerUserAccountId);
+
+    void rebuildAll();
+
+}
@@ -0,0 +1,12 @@
+package com.swiftling.service;
+
+import com.swiftling.dto.PronunciationDTO;
+import com.swiftling.enums.Language;
+
+public interface PronunciationService {
+
+    PronunciationDTO getPronunciation(String text, Language language);
+
+    String getETag(String text, Language language);
+
+}
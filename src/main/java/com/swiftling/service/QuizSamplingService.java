@@ -0,0 +1,19 @@
+package com.swiftling.service;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizSamplingService {
+
+    List<Long> sample(UUID ownerUserAccountId, Status status, Language originalLanguage, String tagName, int size);
+
+    void recordAnswers(UUID ownerUserAccountId, Collection<Phrase> answeredPhrases);
+
+    void evict(UUID ownerUserAccountId);
+
+}
@@ -0,0 +1,13 @@
+package com.swiftling.service;
+
+import com.swiftling.entity.Phrase;
+
+import java.time.LocalDateTime;
+
+public interface SpacedRepetitionService {
+
+    void resetSchedule(Phrase phrase, LocalDateTime now);
+
+    void recordAnswer(Phrase phrase, boolean answeredCorrectly, LocalDateTime answeredAt);
+
+}
@@ -0,0 +1,9 @@
+package com.swiftling.service;
+
+import com.swiftling.dto.SpeechRequestDTO;
+
+public interface SpeechSynthesizer {
+
+    byte[] synthesize(SpeechRequestDTO speechRequest);
+
+}
@@ -0,0 +1,12 @@
+package com.swiftling.service;
+
+import java.util.SortedSet;
+import java.util.UUID;
+
+public interface TagDictionaryService {
+
+    SortedSet<String> getTags(UUID ownerUserAccountId);
+
+    void evict(UUID ownerUserAccountId);
+
+}
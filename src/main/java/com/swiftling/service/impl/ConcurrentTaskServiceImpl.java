@@ -0,0 +1,94 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.ConcurrencyProperties;
+import com.swiftling.service.ConcurrentTaskService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+
+/**
+ * Forks independent blocking work onto virtual threads. Joining a task rethrows its failure unwrapped and waits at
+ * most for the fan-out timeout.
+ * <p>
+ * Tasks run with the caller's {@link org.springframework.security.core.context.SecurityContext}, so Feign calls keep
+ * forwarding the user's token. Request attributes are deliberately not shared with the forked threads.
+ * When fan-out is disabled every task runs inline on the calling thread.
+ */
+@Service
+public class ConcurrentTaskServiceImpl implements ConcurrentTaskService, DisposableBean {
+
+    private final ConcurrencyProperties concurrencyProperties;
+    private final ExecutorService executorService;
+
+    public ConcurrentTaskServiceImpl(ConcurrencyProperties concurrencyProperties) {
+        this.concurrencyProperties = concurrencyProperties;
+        this.executorService = concurrencyProperties.isFanOutEnabled()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory())
+                : null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return executorService != null;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+
+        if (!isEnabled()) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception exception) {
+                return CompletableFuture.failedFuture(exception);
+            }
+        }
+
+        return executorService.submit(withSecurityContext(task));
+
+    }
+
+    @Override
+    public <T> T join(Future<T> future) {
+        return get(future, concurrencyProperties.getFanOutTimeout().toNanos());
+    }
+
+    @Override
+    public void destroy() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private <T> T get(Future<T> future, long timeoutNanos) {
+
+        try {
+            return future.get(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(exception.getCause());
+        } catch (TimeoutException exception) {
+            throw timedOut(exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the forked tasks.", exception);
+        }
+
+    }
+
+    private IllegalStateException timedOut(TimeoutException cause) {
+        return new IllegalStateException("The forked tasks did not complete within " + concurrencyProperties.getFanOutTimeout(), cause);
+    }
+
+    private static <T> Callable<T> withSecurityContext(Callable<T> task) {
+        return DelegatingSecurityContextCallable.create(task, SecurityContextHolder.getContext());
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.swiftling.service.impl;
+
+import com.google.cloud.texttospeech.v1.*;
+import com.swiftling.dto.SpeechRequestDTO;
+import com.swiftling.service.SpeechSynthesizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link SpeechSynthesizer} backed by Google Cloud Text-to-Speech.
+ * <p>
+ * A single {@link TextToSpeechClient} (and with it the gRPC channel and credentials) is shared by all requests.
+ * It is created on first use, so the application can start without Google credentials, and closed on shutdown.
+ */
+@Slf4j
+@Service
+public class GoogleSpeechSynthesizer implements SpeechSynthesizer, DisposableBean {
+
+    private volatile TextToSpeechClient textToSpeechClient;
+
+    @Override
+    public byte[] synthesize(SpeechRequestDTO speechRequest) {
+
+        SynthesisInput input = SynthesisInput.newBuilder()
+                .setText(speechRequest.getText())
+                .build();
+
+        VoiceSelectionParams voice = VoiceSelectionParams.newBuilder()
+                .setLanguageCode(speechRequest.getLanguageCode())
+                .setSsmlGender(SsmlVoiceGender.valueOf(speechRequest.getVoiceGender()))
+                .build();
+
+        AudioConfig audioConfig = AudioConfig.newBuilder()
+                .setAudioEncoding(AudioEncoding.valueOf(speechRequest.getAudioEncoding()))
+                .build();
+
+        SynthesizeSpeechResponse response = getClient().synthesizeSpeech(input, voice, audioConfig);
+
+        return response.getAudioContent().toByteArray();
+
+    }
+
+    @Override
+    public void destroy() {
+        if (textToSpeechClient != null) {
+            textToSpeechClient.close();
+        }
+    }
+
+    private TextToSpeechClient getClient() {
+
+        TextToSpeechClient client = textToSpeechClient;
+
+        if (client == null) {
+            synchronized (this) {
+                client = textToSpeechClient;
+                if (client == null) {
+                    try {
+                        client = TextToSpeechClient.create();
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException("The Text-to-Speech client could not be created.", exception);
+                    }
+                    textToSpeechClient = client;
+                    log.info("Text-to-Speech client has been created.");
+                }
+            }
+        }
+
+        return client;
+
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.client.UserAccountClient;
+import com.swiftling.config.IdentityProperties;
+import com.swiftling.dto.UserAccountResponseDTO;
+import com.swiftling.exception.ExternalIdNotRetrievedException;
+import com.swiftling.service.ConcurrentTaskService;
+import com.swiftling.service.IdentityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Resolves the external user account ID of the logged in user.
+ * <p>
+ * Resolution order:
+ * <ol>
+ *     <li>the value already resolved (or being prefetched) for the current HTTP request,</li>
+ *     <li>the configured JWT claim (see {@link IdentityProperties#getExternalIdClaim()}),</li>
+ *     <li>the per-subject cache, whose entries expire with the token or after the configured TTL,</li>
+ *     <li>a call to the user service.</li>
+ * </ol>
+ * The JWT has already been verified by the resource server at this point, so its subject can be trusted as a cache key.
+ */
+@Slf4j
+@Service
+public class IdentityServiceImpl implements IdentityService {
+
+    private static final String REQUEST_ATTRIBUTE = IdentityServiceImpl.class.getName() + ".ownerUserAccountId";
+
+    private final UserAccountClient userAccountClient;
+    private final IdentityProperties identityProperties;
+    private final ConcurrentTaskService concurrentTaskService;
+
+    private final LinkedHashMap<String, CachedIdentity> identityCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    public IdentityServiceImpl(UserAccountClient userAccountClient, IdentityProperties identityProperties,
+                               ConcurrentTaskService concurrentTaskService) {
+        this.userAccountClient = userAccountClient;
+        this.identityProperties = identityProperties;
+        this.concurrentTaskService = concurrentTaskService;
+    }
+
+    @Override
+    public UUID getOwnerUserAccountId() {
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        Object resolved = requestAttributes != null
+                ? requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+
+        if (resolved instanceof UUID resolvedId) {
+            return resolvedId;
+        }
+
+        UUID ownerUserAccountId = resolved instanceof Future<?> prefetched
+                ? (UUID) concurrentTaskService.join(prefetched)
+                : resolve();
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE, ownerUserAccountId, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return ownerUserAccountId;
+
+    }
+
+    /**
+     * Starts resolving the ID on a forked thread, so the user service call overlaps with request binding and
+     * validation. {@link #getOwnerUserAccountId()} joins it later. Does nothing when fan-out is disabled.
+     */
+    @Override
+    public void prefetchOwnerUserAccountId() {
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (!concurrentTaskService.isEnabled() || requestAttributes == null
+                || requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+
+        requestAttributes.setAttribute(REQUEST_ATTRIBUTE, concurrentTaskService.submit(this::resolve), RequestAttributes.SCOPE_REQUEST);
+
+    }
+
+    private UUID resolve() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthToken)) {
+            return fetchFromUserService();
+        }
+
+        Jwt jwt = jwtAuthToken.getToken();
+
+        UUID fromClaim = readFromClaim(jwt);
+
+        if (fromClaim != null) {
+            return fromClaim;
+        }
+
+        String subject = jwt.getSubject();
+
+        if (subject == null) {
+            return fetchFromUserService();
+        }
+
+        Instant now = Instant.now();
+
+        CachedIdentity cachedIdentity = getFromCache(subject);
+
+        if (cachedIdentity != null && cachedIdentity.expiresAt().isAfter(now)) {
+            return cachedIdentity.ownerUserAccountId();
+        }
+
+        UUID ownerUserAccountId = fetchFromUserService();
+
+        Instant expiresAt = now.plus(identityProperties.getCacheTtl());
+
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAt();
+        }
+
+        putInCache(subject, new CachedIdentity(ownerUserAccountId, expiresAt));
+
+        return ownerUserAccountId;
+
+    }
+
+    private UUID readFromClaim(Jwt jwt) {
+
+        String claimName = identityProperties.getExternalIdClaim();
+
+        if (claimName == null || claimName.isBlank()) {
+            return null;
+        }
+
+        String claimValue = jwt.getClaimAsString(claimName);
+
+        if (claimValue == null) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(claimValue);
+        } catch (IllegalArgumentException exception) {
+            log.warn("The claim '{}' does not contain a valid user account ID: {}", claimName, claimValue);
+            return null;
+        }
+
+    }
+
+    private synchronized CachedIdentity getFromCache(String subject) {
+        return identityCache.get(subject);
+    }
+
+    /**
+     * Drops the least recently used subjects beyond the maximum size. Expired entries are replaced on their next
+     * lookup or age out of the access order.
+     */
+    private synchronized void putInCache(String subject, CachedIdentity cachedIdentity) {
+
+        identityCache.put(subject, cachedIdentity);
+
+        Iterator<String> iterator = identityCache.keySet().iterator();
+
+        while (identityCache.size() > identityProperties.getCacheMaxSize() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+    }
+
+    private UUID fetchFromUserService() {
+
+        try {
+
+            ResponseEntity<UserAccountResponseDTO> response = userAccountClient.getUserAccountExternalId();
+
+            if (Objects.requireNonNull(response.getBody()).isSuccess() && Objects.requireNonNull(response.getBody()).getData() != null) {
+                return UUID.fromString((String) response.getBody().getData());
+            }
+
+            throw new ExternalIdNotRetrievedException("The external ID of the user account could not be retrieved.");
+
+        } catch (Throwable exception) {
+            log.error(exception.getMessage());
+            exception.printStackTrace();
+            throw new ExternalIdNotRetrievedException("The external ID of the user account could not be retrieved.");
+        }
+
+    }
+
+    private record CachedIdentity(UUID ownerUserAccountId, Instant expiresAt) {
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.JobLeaseProperties;
+import com.swiftling.repository.JobShardLeaseRepository;
+import com.swiftling.service.JobLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coordinates scheduled jobs between service replicas through the {@code job_shard_leases} table.
+ * <p>
+ * A run of a job is identified by its name and date and split into shards. An instance may only work on a shard after
+ * inserting its lease row; the unique constraint lets exactly one instance win. Leases of instances that died before
+ * completing their shard expire and can then be taken over, so a holder renews its lease while it works on the shard
+ * and stops once the renewal fails. Every call commits on its own, so a claim is visible to the other replicas
+ * immediately, also when the caller runs inside a transaction.
+ */
+@Slf4j
+@Service
+public class JobLeaseServiceImpl implements JobLeaseService {
+
+    private final JobShardLeaseRepository jobShardLeaseRepository;
+    private final JobLeaseProperties jobLeaseProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+
+    public JobLeaseServiceImpl(JobShardLeaseRepository jobShardLeaseRepository, JobLeaseProperties jobLeaseProperties,
+                               PlatformTransactionManager transactionManager) {
+        this.jobShardLeaseRepository = jobShardLeaseRepository;
+        this.jobLeaseProperties = jobLeaseProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.instanceId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public boolean tryAcquire(String jobName, LocalDate runDate, int shard) {
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leasedUntil = now.plus(jobLeaseProperties.getLeaseDuration());
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobShardLeaseRepository.insert(jobName, runDate, shard, instanceId, leasedUntil));
+            return true;
+        } catch (DataIntegrityViolationException exception) {
+            // the lease row already exists, it can only be taken over once it expired
+        }
+
+        Integer takenOver = transactionTemplate.execute(status ->
+                jobShardLeaseRepository.takeOverExpired(jobName, runDate, shard, instanceId, leasedUntil, now));
+
+        if (takenOver != null && takenOver == 1) {
+            log.warn("Took over the expired lease of {} shard {} for {}", jobName, shard, runDate);
+            return true;
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Extends the lease of a shard this instance holds. Returns false once another instance took the lease over,
+     * so the caller must stop working on the shard.
+     */
+    @Override
+    public boolean renew(String jobName, LocalDate runDate, int shard) {
+
+        LocalDateTime leasedUntil = LocalDateTime.now().plus(jobLeaseProperties.getLeaseDuration());
+
+        Integer renewed = transactionTemplate.execute(status ->
+                jobShardLeaseRepository.renew(jobName, runDate, shard, instanceId, leasedUntil));
+
+        return renewed != null && renewed == 1;
+
+    }
+
+    @Override
+    public void complete(String jobName, LocalDate runDate, int shard) {
+
+        Integer completed = transactionTemplate.execute(status ->
+                jobShardLeaseRepository.complete(jobName, runDate, shard, instanceId, LocalDateTime.now()));
+
+        if (completed == null || completed == 0) {
+            log.warn("The lease of {} shard {} for {} was taken over before it completed", jobName, shard, runDate);
+        }
+
+    }
+
+    /**
+     * Whether any shard of the run was claimed, i.e. some instance already started it.
+     */
+    @Override
+    public boolean hasStarted(String jobName, LocalDate runDate) {
+        return jobShardLeaseRepository.existsByJobNameAndRunDate(jobName, runDate);
+    }
+
+    @Override
+    public Set<Integer> findCompletedShards(String jobName, LocalDate runDate) {
+        return jobShardLeaseRepository.findCompletedShards(jobName, runDate);
+    }
+
+    @Override
+    public void purgeOldRuns(String jobName, LocalDate runDate) {
+        transactionTemplate.executeWithoutResult(status -> jobShardLeaseRepository.deleteAllByJobNameAndRunDateBefore(
+                jobName, runDate.minusDays(jobLeaseProperties.getRetentionDays())));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException exception) {
+            return "unknown-host";
+        }
+    }
+
+}
@@ -1,40 +1,85 @@
 package com.swiftling.service.impl;
 
+import com.swiftling.config.ProgressFanOutProperties;
 import com.swiftling.dto.ProgressDTO;
 import com.swiftling.dto.UserProgressMessageDTO;
+import com.swiftling.service.JobLeaseService;
 import com.swiftling.service.KafkaProducerService;
 import com.swiftling.service.PhraseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.math.BigInteger;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
-@EnableScheduling
 public class KafkaProducerServiceImpl implements KafkaProducerService {
 
+    static final String DAILY_PROGRESS_JOB = "daily-progress-fan-out";
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final PhraseService phraseService;
+    private final ProgressFanOutProperties progressFanOutProperties;
+    private final JobLeaseService jobLeaseService;
+
+    private final Counter sentMessages;
+    private final Counter failedMessages;
+    private final DistributionSummary usersPerRun;
+    private final Timer runDuration;
+    private final MeterRegistry meterRegistry;
 
     @Value("${kafka.topic.user-progress}")
     private String userProgressTopic;
 
-    public KafkaProducerServiceImpl(KafkaTemplate<String, Object> kafkaTemplate, PhraseService phraseService) {
+    public KafkaProducerServiceImpl(KafkaTemplate<String, Object> kafkaTemplate, PhraseService phraseService,
+                                    ProgressFanOutProperties progressFanOutProperties, JobLeaseService jobLeaseService,
+                                    MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
         this.phraseService = phraseService;
+        this.progressFanOutProperties = progressFanOutProperties;
+        this.jobLeaseService = jobLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.sentMessages = Counter.builder("swiftling.progress.fanout.messages")
+                .tag("result", "sent")
+                .description("Daily progress messages acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedMessages = Counter.builder("swiftling.progress.fanout.messages")
+                .tag("result", "failed")
+                .description("Daily progress messages that could not be sent")
+                .register(meterRegistry);
+        this.usersPerRun = DistributionSummary.builder("swiftling.progress.fanout.users")
+                .description("Users whose progress was published by one run of the daily job")
+                .register(meterRegistry);
+        this.runDuration = Timer.builder("swiftling.progress.fanout.duration")
+                .description("Duration of the daily progress job until all sends completed")
+                .register(meterRegistry);
     }
 
     @Override
     public void sendUserProgressMessage(UserProgressMessageDTO userProgressMessageDTO) {
         log.info("Sending user progress message to Kafka: {}", userProgressMessageDTO);
-        kafkaTemplate.send(userProgressTopic, userProgressMessageDTO);
+        send(userProgressMessageDTO);
     }
 
     /**
@@ -46,33 +91,246 @@ public class KafkaProducerServiceImpl implements KafkaProducerService {
      * - every day of the month
      * - every month
      * - every day of the week
+     * <p>
+     * The user ID space is split into {@link ProgressFanOutProperties#getShardCount()} ranges. Every replica walks
+     * the ranges starting at a random one and publishes those it manages to lease, so the work spreads over the
+     * replicas and each user is published by one of them. Within a range users are loaded in chunks of
+     * {@link ProgressFanOutProperties#getChunkSize()} with at most {@link ProgressFanOutProperties#getMaxInFlight()}
+     * unacknowledged sends. The lease of a range is renewed after every chunk, and the range is abandoned when
+     * another replica took it over in the meantime; a range is only marked complete once all its sends were
+     * acknowledged or failed.
+     * Ranges left incomplete are retried by {@link #sweepIncompleteShards()}.
      */
     @Scheduled(cron = "0 0 9 * * ?")
     public void sendAllUsersProgressMessages() {
 
         log.info("Executing scheduled task to send daily progress messages for all users at 9 AM");
 
+        LocalDate runDate = LocalDate.now();
+
         try {
+            jobLeaseService.purgeOldRuns(DAILY_PROGRESS_JOB, runDate);
+        } catch (Exception e) {
+            log.error("Error purging old runs of the daily progress messages", e);
+        }
 
-            Map<UUID, Map<String, ProgressDTO>> allUserProgress = phraseService.getAllUsersProgress();
+        sendShards(runDate, IntStream.range(0, progressFanOutProperties.getShardCount()).boxed().toList());
 
-            allUserProgress.forEach((userId, progressMap) -> {
-                UserProgressMessageDTO message = UserProgressMessageDTO.builder()
-                        .userAccountId(userId)
-                        .progress(progressMap)
-                        .timestamp(LocalDateTime.now())
-                        .build();
+    }
+
+    /**
+     * Retries the shards of today's run that are not complete yet, once the run was started. Their holder crashed
+     * or its sends were not acknowledged in time, so their lease is taken over once it expired. Shards whose lease
+     * is still held are skipped until a later sweep; once all shards are complete the sweep does nothing until the
+     * next run.
+     */
+    @Scheduled(fixedDelayString = "${progress.fan-out.sweep-interval:PT5M}")
+    public void sweepIncompleteShards() {
 
-                sendUserProgressMessage(message);
+        LocalDate runDate = LocalDate.now();
+        List<Integer> incompleteShards;
 
-            });
+        try {
+
+            if (!jobLeaseService.hasStarted(DAILY_PROGRESS_JOB, runDate)) {
+                return;
+            }
+
+            Set<Integer> completedShards = jobLeaseService.findCompletedShards(DAILY_PROGRESS_JOB, runDate);
 
-            log.info("Successfully sent progress messages for {} users", allUserProgress.size());
+            incompleteShards = IntStream.range(0, progressFanOutProperties.getShardCount())
+                    .filter(shard -> !completedShards.contains(shard))
+                    .boxed()
+                    .toList();
 
+        } catch (Exception e) {
+            log.error("Error looking for incomplete shards of the daily progress messages", e);
+            return;
+        }
+
+        if (!incompleteShards.isEmpty()) {
+            log.info("{} shards of the daily progress messages for {} are incomplete", incompleteShards.size(), runDate);
+            sendShards(runDate, incompleteShards);
+        }
+
+    }
+
+    /**
+     * Publishes the given shards this instance manages to lease, starting at a random one.
+     */
+    private void sendShards(LocalDate runDate, List<Integer> shards) {
+
+        Timer.Sample sample = Timer.start();
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        FanOutRun run = new FanOutRun();
+
+        try {
+
+            int shardCount = progressFanOutProperties.getShardCount();
+            int first = ThreadLocalRandom.current().nextInt(shards.size());
+
+            for (int i = 0; i < shards.size(); i++) {
+
+                int shard = shards.get((first + i) % shards.size());
+
+                if (!jobLeaseService.tryAcquire(DAILY_PROGRESS_JOB, runDate, shard)) {
+                    continue;
+                }
+
+                if (sendShard(runDate, shard, shardCount, timestamp, run)) {
+                    jobLeaseService.complete(DAILY_PROGRESS_JOB, runDate, shard);
+                }
+
+                run.shards++;
+
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while sending progress messages to Kafka", e);
         } catch (Exception e) {
             log.error("Error sending progress messages to Kafka", e);
+        } finally {
+            usersPerRun.record(run.users);
+            long durationNanos = sample.stop(runDuration);
+            log.info("Daily progress messages: {} shards, {} users, {} sent, {} failed, {} ms",
+                    run.shards, run.users, run.sent.get(), run.failed.get(), TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        }
+
+    }
+
+    /**
+     * Publishes the progress of every user in the given shard and waits for the outstanding sends.
+     * Returns whether all sends completed within the completion timeout while this instance held the lease.
+     */
+    private boolean sendShard(LocalDate runDate, int shard, int shardCount, LocalDateTime timestamp, FanOutRun run)
+            throws InterruptedException {
+
+        int maxInFlight = progressFanOutProperties.getMaxInFlight();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        UUID lastUserAccountId = shardStart(shard, shardCount);
+        UUID shardEnd = shardStart(shard + 1, shardCount);
+        LinkedHashMap<UUID, Map<String, ProgressDTO>> chunk;
+
+        do {
+
+            chunk = phraseService.getUsersProgressPage(lastUserAccountId, shardEnd, progressFanOutProperties.getChunkSize());
+
+            for (Map.Entry<UUID, Map<String, ProgressDTO>> userProgress : chunk.entrySet()) {
+
+                UserProgressMessageDTO message = UserProgressMessageDTO.builder()
+                        .userAccountId(userProgress.getKey())
+                        .progress(userProgress.getValue())
+                        .timestamp(timestamp)
+                        .build();
+
+                inFlight.acquire();
+
+                CompletableFuture<SendResult<String, Object>> sendResult;
+
+                try {
+                    sendResult = send(message);
+                } catch (RuntimeException exception) {
+                    sendResult = CompletableFuture.failedFuture(exception);
+                }
+
+                sendResult.whenComplete((result, exception) -> {
+                    inFlight.release();
+                    if (exception == null) {
+                        run.sent.incrementAndGet();
+                        sentMessages.increment();
+                    } else {
+                        run.failed.incrementAndGet();
+                        failedMessages.increment();
+                        log.warn("Progress message for user {} could not be sent", message.getUserAccountId(), exception);
+                    }
+                });
+
+                lastUserAccountId = userProgress.getKey();
+                run.users++;
+
+            }
+
+            if (!jobLeaseService.renew(DAILY_PROGRESS_JOB, runDate, shard)) {
+                log.warn("The lease of shard {} was taken over by another instance, stopping after user {}",
+                        shard, lastUserAccountId);
+                return false;
+            }
+
+        } while (chunk.size() == progressFanOutProperties.getChunkSize());
+
+        if (!inFlight.tryAcquire(maxInFlight, progressFanOutProperties.getCompletionTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("{} progress messages of shard {} were still unacknowledged after {}",
+                    maxInFlight - inFlight.availablePermits(), shard, progressFanOutProperties.getCompletionTimeout());
+            return false;
         }
 
+        return true;
+
+    }
+
+    /**
+     * Exclusive lower bound of the shard's user ID range ({@code null} for the first shard, or for the upper bound
+     * of the last one). Shards split the unsigned most significant 64 bits of the ID evenly, which matches the
+     * byte-wise UUID ordering of the database.
+     */
+    static UUID shardStart(int shard, int shardCount) {
+
+        if (shard <= 0 || shard >= shardCount) {
+            return null;
+        }
+
+        long firstMostSignificantBits = BigInteger.ONE.shiftLeft(64)
+                .multiply(BigInteger.valueOf(shard))
+                .divide(BigInteger.valueOf(shardCount))
+                .longValue();
+
+        return new UUID(firstMostSignificantBits - 1, -1L);
+
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(UserProgressMessageDTO userProgressMessageDTO) {
+        return send(userProgressTopic, userProgressMessageDTO.getUserAccountId(), userProgressMessageDTO);
+    }
+
+    /**
+     * Sends keyed by the user account ID, so all messages of a user land on the same partition in order,
+     * and records the time until the broker acknowledged (or rejected) the record.
+     */
+    @Override
+    public CompletableFuture<SendResult<String, Object>> send(String topic, UUID userAccountId, Object message) {
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        String key = userAccountId != null ? userAccountId.toString() : null;
+
+        return kafkaTemplate.send(topic, key, message)
+                .whenComplete((result, exception) -> sample.stop(Timer.builder("swiftling.kafka.send")
+                        .description("Time until a sent record was acknowledged or failed")
+                        .tag("topic", topic)
+                        .tag("result", exception == null ? "success" : "failure")
+                        .tag("exception", exception == null ? "none" : rootCause(exception).getClass().getSimpleName())
+                        .register(meterRegistry)));
+
+    }
+
+    private static Throwable rootCause(Throwable exception) {
+        Throwable cause = exception;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static class FanOutRun {
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private long users;
+        private int shards;
+
     }
 
 }
@@ -0,0 +1,235 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftling.config.OutboxProperties;
+import com.swiftling.entity.OutboxEvent;
+import com.swiftling.repository.OutboxDeadLetterRepository;
+import com.swiftling.repository.OutboxEventRepository;
+import com.swiftling.service.KafkaProducerService;
+import com.swiftling.service.OutboxRelayService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the events of {@code outbox_events} to Kafka, at least once and in insertion order per user.
+ * <p>
+ * Every batch is one transaction: the due events are locked (rows locked by another replica are skipped), sent
+ * together, and those the broker acknowledged within {@link OutboxProperties#getSendTimeout()} are deleted. The others
+ * stay locked until the commit and are retried with exponential backoff. A user's later events are not picked up
+ * while an earlier one is pending, so a retry never overtakes them. An event that still fails after
+ * {@link OutboxProperties#getMaxAttempts()} sends is moved to {@code outbox_dead_letters}, which unblocks the user.
+ */
+@Slf4j
+@Service
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final OutboxProperties outboxProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedEvents;
+    private final Counter failedEvents;
+    private final Counter deadLetteredEvents;
+    private final Timer publishLag;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestEventAgeSeconds = new AtomicLong();
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    public OutboxRelayServiceImpl(OutboxEventRepository outboxEventRepository,
+                                  OutboxDeadLetterRepository outboxDeadLetterRepository,
+                                  KafkaProducerService kafkaProducerService, OutboxProperties outboxProperties,
+                                  ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.outboxProperties = outboxProperties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.publishedEvents = Counter.builder("swiftling.outbox.events")
+                .tag("result", "published")
+                .description("Outbox events acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedEvents = Counter.builder("swiftling.outbox.events")
+                .tag("result", "failed")
+                .description("Outbox event sends that failed")
+                .register(meterRegistry);
+        this.deadLetteredEvents = Counter.builder("swiftling.outbox.events")
+                .tag("result", "dead_lettered")
+                .description("Outbox events moved to the dead letters after their last failed send")
+                .register(meterRegistry);
+        this.publishLag = Timer.builder("swiftling.outbox.lag")
+                .description("Time from storing an outbox event until Kafka acknowledged it")
+                .register(meterRegistry);
+        Gauge.builder("swiftling.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox events waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("swiftling.outbox.oldest.age", oldestEventAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest outbox event waiting to be sent")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("swiftling.outbox.dead.letters", deadLetters, AtomicLong::get)
+                .description("Outbox events the relay gave up on")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batch by batch until no event is due, then refreshes the backlog gauges. A batch holds at most one event
+     * per user, the next one becomes due once it is sent. Failed events are rescheduled, so they end the loop too.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+
+        try {
+            while (relayBatch() > 0) {
+                // keep draining
+            }
+        } catch (Exception e) {
+            log.error("Error relaying outbox events to Kafka", e);
+        }
+
+        updateBacklog();
+
+    }
+
+    @Override
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> relayDueEvents());
+        return relayed != null ? relayed : 0;
+    }
+
+    private int relayDueEvents() {
+
+        List<OutboxEvent> events = outboxEventRepository.findDueHeads(LocalDateTime.now(), Limit.of(outboxProperties.getBatchSize()));
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(events.size());
+
+        for (OutboxEvent event : events) {
+            sends.add(send(event));
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(outboxProperties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // the outcome of every send is checked below
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> publishedIds = new ArrayList<>(events.size());
+        List<Long> deadLetterIds = new ArrayList<>();
+
+        for (int i = 0; i < events.size(); i++) {
+
+            OutboxEvent event = events.get(i);
+            CompletableFuture<SendResult<String, Object>> send = sends.get(i);
+
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                publishedIds.add(event.getId());
+                publishedEvents.increment();
+                publishLag.record(Duration.between(event.getCreatedAt(), now));
+            } else {
+                failedEvents.increment();
+                if (recordFailure(event, send, now)) {
+                    deadLetterIds.add(event.getId());
+                    deadLetteredEvents.increment();
+                }
+            }
+
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(publishedIds);
+
+        if (!deadLetterIds.isEmpty()) {
+            outboxDeadLetterRepository.insertFromOutbox(deadLetterIds, now);
+            outboxEventRepository.deleteAllByIdInBatch(deadLetterIds);
+        }
+
+        return events.size();
+
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            Object message = objectMapper.readValue(event.getPayload(), event.getEventType().getMessageType());
+            return kafkaProducerService.send(event.getTopic(), event.getUserAccountId(), message);
+        } catch (Exception exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Records the failed attempt and schedules the retry. Returns {@code true} when it was the last attempt instead.
+     */
+    private boolean recordFailure(OutboxEvent event, CompletableFuture<SendResult<String, Object>> send, LocalDateTime now) {
+
+        int attempts = event.getAttempts() + 1;
+
+        Duration backoff = outboxProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+
+        if (backoff.compareTo(outboxProperties.getMaxBackoff()) > 0) {
+            backoff = outboxProperties.getMaxBackoff();
+        }
+
+        String error = send.isDone()
+                ? send.handle((result, exception) -> String.valueOf(exception)).join()
+                : "Not acknowledged within " + outboxProperties.getSendTimeout();
+
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(now.plus(backoff));
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= outboxProperties.getMaxAttempts()) {
+            log.error("Outbox event {} for user {} could not be sent after {} attempts, moving it to the dead letters: {}",
+                    event.getId(), event.getUserAccountId(), attempts, error);
+            return true;
+        }
+
+        log.warn("Outbox event {} for user {} could not be sent (attempt {}), retrying in {}: {}",
+                event.getId(), event.getUserAccountId(), attempts, backoff, error);
+
+        return false;
+
+    }
+
+    private void updateBacklog() {
+        try {
+            LocalDateTime oldestCreatedAt = outboxEventRepository.findOldestCreatedAt();
+            backlog.set(outboxEventRepository.count());
+            deadLetters.set(outboxDeadLetterRepository.count());
+            oldestEventAgeSeconds.set(oldestCreatedAt != null ? Duration.between(oldestCreatedAt, LocalDateTime.now()).toSeconds() : 0);
+        } catch (Exception e) {
+            log.warn("The outbox backlog could not be measured", e);
+        }
+    }
+
+}
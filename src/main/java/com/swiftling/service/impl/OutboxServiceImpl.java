@@ -0,0 +1,68 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftling.config.OutboxProperties;
+import com.swiftling.dto.PhraseChangeMessageDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+import com.swiftling.entity.OutboxEvent;
+import com.swiftling.enums.OutboxEventType;
+import com.swiftling.repository.OutboxEventRepository;
+import com.swiftling.service.OutboxService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stores outgoing messages in {@code outbox_events}. The methods join the caller's transaction, so a message is only
+ * stored if the change it describes commits. {@link OutboxRelayServiceImpl} sends them afterwards.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties outboxProperties;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topic.user-progress}")
+    private String userProgressTopic;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, OutboxProperties outboxProperties,
+                             ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxProperties = outboxProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueUserProgressMessage(UserProgressMessageDTO userProgressMessageDTO) {
+        enqueue(OutboxEventType.USER_PROGRESS, userProgressTopic, userProgressMessageDTO.getUserAccountId(), userProgressMessageDTO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePhraseChangeMessage(PhraseChangeMessageDTO phraseChangeMessageDTO) {
+        enqueue(OutboxEventType.PHRASE_CHANGE, outboxProperties.getPhraseChangeTopic(), phraseChangeMessageDTO.getUserAccountId(),
+                phraseChangeMessageDTO);
+    }
+
+    private void enqueue(OutboxEventType eventType, String topic, UUID userAccountId, Object message) {
+
+        String payload;
+
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("The " + eventType + " message could not be serialized.", exception);
+        }
+
+        outboxEventRepository.save(new OutboxEvent(eventType, topic, userAccountId, payload, LocalDateTime.now()));
+
+    }
+
+}
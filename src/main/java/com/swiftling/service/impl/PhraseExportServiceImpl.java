@@ -0,0 +1,131 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.enums.ExportFormat;
+import com.swiftling.repository.PhraseExportView;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.service.IdentityService;
+import com.swiftling.service.PhraseExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes all phrases of a user straight to the response while they are read from a database cursor, so memory use
+ * does not grow with the size of the vocabulary.
+ * <p>
+ * Languages are written as codes, so an export can be uploaded again through the import endpoint.
+ */
+@Service
+public class PhraseExportServiceImpl implements PhraseExportService {
+
+    private final PhraseRepository phraseRepository;
+    private final IdentityService identityService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter csvWriter;
+
+    public PhraseExportServiceImpl(PhraseRepository phraseRepository, IdentityService identityService,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.phraseRepository = phraseRepository;
+        this.identityService = identityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.ndjsonWriter = objectMapper.writerFor(PhraseDTO.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.csvWriter = new CsvMapper().writerFor(PhraseDTO.class)
+                .with(CsvSchema.builder()
+                        .addColumn("externalPhraseId")
+                        .addColumn("originalPhrase")
+                        .addColumn("originalLanguage")
+                        .addColumn("meaning")
+                        .addColumn("meaningLanguage")
+                        .addArrayColumn("phraseTags", ";")
+                        .addColumn("status")
+                        .addColumn("notes")
+                        .setUseHeader(true)
+                        .build())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * The user is resolved on the request thread; the returned body runs later on an async thread, where it opens
+     * its own read-only transaction for the cursor.
+     */
+    @Override
+    public StreamingResponseBody exportPhrases(ExportFormat exportFormat) {
+
+        UUID ownerUserAccountId = identityService.getOwnerUserAccountId();
+
+        ObjectWriter writer = exportFormat == ExportFormat.CSV ? csvWriter : ndjsonWriter;
+
+        return outputStream -> transactionTemplate.executeWithoutResult(status ->
+                writePhrases(ownerUserAccountId, writer, outputStream));
+
+    }
+
+    private void writePhrases(UUID ownerUserAccountId, ObjectWriter writer, OutputStream outputStream) {
+
+        try (Stream<PhraseExportView> rows = phraseRepository.streamExportRows(ownerUserAccountId);
+             SequenceWriter sequenceWriter = writer.writeValues(outputStream)) {
+
+            Iterator<PhraseExportView> iterator = rows.iterator();
+
+            Long currentPhraseId = null;
+            PhraseDTO currentPhrase = null;
+
+            while (iterator.hasNext()) {
+
+                PhraseExportView row = iterator.next();
+
+                if (!row.getPhraseId().equals(currentPhraseId)) {
+
+                    if (currentPhrase != null) {
+                        sequenceWriter.write(currentPhrase);
+                    }
+
+                    currentPhraseId = row.getPhraseId();
+                    currentPhrase = toPhraseDTO(row);
+
+                }
+
+                if (row.getTagName() != null) {
+                    currentPhrase.getPhraseTags().add(row.getTagName().toLowerCase());
+                }
+
+            }
+
+            if (currentPhrase != null) {
+                sequenceWriter.write(currentPhrase);
+            }
+
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+    }
+
+    private static PhraseDTO toPhraseDTO(PhraseExportView row) {
+        return new PhraseDTO(row.getExternalPhraseId(), row.getOriginalPhrase(), row.getOriginalLanguage().getCode(),
+                row.getMeaning(), row.getMeaningLanguage().getCode(), new ArrayList<>(), row.getStatus().getValue(),
+                row.getNotes());
+    }
+
+}
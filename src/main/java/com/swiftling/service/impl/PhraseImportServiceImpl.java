@@ -0,0 +1,332 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.swiftling.config.PhraseImportProperties;
+import com.swiftling.dto.PhraseChangeMessageDTO;
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.PhraseImportReportDTO;
+import com.swiftling.dto.PhraseImportRowReportDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.PhraseChangeType;
+import com.swiftling.enums.PhraseImportOutcome;
+import com.swiftling.enums.Status;
+import com.swiftling.exception.InvalidImportFileException;
+import com.swiftling.exception.UnknownLanguageException;
+import com.swiftling.repository.PhraseBatchRepository;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.service.IdentityService;
+import com.swiftling.service.OutboxService;
+import com.swiftling.service.PhraseImportService;
+import com.swiftling.service.ProgressCounterService;
+import com.swiftling.service.QuizSamplingService;
+import com.swiftling.service.TagDictionaryService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports phrases from a CSV file (with a header row, tags separated by {@code ;}) or from NDJSON, one
+ * {@link PhraseDTO} per line.
+ * <p>
+ * The upload is read row by row and never held in memory as a whole. Valid rows are collected into batches of
+ * {@link PhraseImportProperties#getBatchSize()}; every batch is checked against the existing phrases with one query,
+ * and its tags, phrases and phrase tags are written as JDBC batches in one transaction.
+ */
+@Slf4j
+@Service
+public class PhraseImportServiceImpl implements PhraseImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private final PhraseRepository phraseRepository;
+    private final PhraseBatchRepository phraseBatchRepository;
+    private final IdentityService identityService;
+    private final ProgressCounterService progressCounterService;
+    private final OutboxService outboxService;
+    private final TagDictionaryService tagDictionaryService;
+    private final QuizSamplingService quizSamplingService;
+    private final PhraseImportProperties phraseImportProperties;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    public PhraseImportServiceImpl(PhraseRepository phraseRepository, PhraseBatchRepository phraseBatchRepository,
+                                   IdentityService identityService, ProgressCounterService progressCounterService,
+                                   OutboxService outboxService, TagDictionaryService tagDictionaryService,
+                                   QuizSamplingService quizSamplingService, PhraseImportProperties phraseImportProperties,
+                                   Validator validator, TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.phraseRepository = phraseRepository;
+        this.phraseBatchRepository = phraseBatchRepository;
+        this.identityService = identityService;
+        this.progressCounterService = progressCounterService;
+        this.outboxService = outboxService;
+        this.tagDictionaryService = tagDictionaryService;
+        this.quizSamplingService = quizSamplingService;
+        this.phraseImportProperties = phraseImportProperties;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.ndjsonReader = objectMapper.readerFor(PhraseDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvReader = new CsvMapper().readerFor(PhraseDTO.class)
+                .with(CsvSchema.emptySchema().withHeader().withArrayElementSeparator(";"))
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public PhraseImportReportDTO importPhrases(InputStream content, MediaType contentType) {
+
+        UUID ownerUserAccountId = identityService.getOwnerUserAccountId();
+
+        ObjectReader reader = TEXT_CSV.isCompatibleWith(contentType) ? csvReader : ndjsonReader;
+
+        PhraseImportReportDTO report = new PhraseImportReportDTO();
+        Set<String> seenPhrases = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(phraseImportProperties.getBatchSize());
+
+        try (MappingIterator<PhraseDTO> rows = reader.readValues(content)) {
+
+            int rowNumber = 0;
+
+            while (hasNextRow(rows, rowNumber, report)) {
+
+                rowNumber++;
+
+                if (rowNumber > phraseImportProperties.getMaxRows()) {
+                    addRow(report, rowNumber, PhraseImportOutcome.INVALID, null, null,
+                            "Only the first " + phraseImportProperties.getMaxRows() + " rows are imported.");
+                    break;
+                }
+
+                PhraseDTO phraseDTO;
+
+                try {
+                    phraseDTO = rows.nextValue();
+                } catch (JsonProcessingException | RuntimeException exception) {
+                    addRow(report, rowNumber, PhraseImportOutcome.INVALID, null, null, "The row could not be read.");
+                    continue;
+                } catch (IOException exception) {
+                    addUnreadableRestRow(report, rowNumber, exception);
+                    break;
+                }
+
+                ImportRow row = toImportRow(rowNumber, phraseDTO, report);
+
+                if (row == null) {
+                    continue;
+                }
+
+                if (!seenPhrases.add(row.phrase().getOriginalPhrase())) {
+                    addRow(report, rowNumber, PhraseImportOutcome.DUPLICATE, null, row.phrase().getOriginalPhrase(),
+                            "The phrase appears more than once in the file.");
+                    continue;
+                }
+
+                batch.add(row);
+
+                if (batch.size() == phraseImportProperties.getBatchSize()) {
+                    importBatch(ownerUserAccountId, batch, report);
+                    batch.clear();
+                }
+
+            }
+
+        } catch (JsonProcessingException exception) {
+            throw new InvalidImportFileException("The import file could not be read: " + exception.getOriginalMessage());
+        } catch (IOException exception) {
+            throw new InvalidImportFileException("The import file could not be read: " + exception.getMessage());
+        }
+
+        if (!batch.isEmpty()) {
+            importBatch(ownerUserAccountId, batch, report);
+        }
+
+        report.getRows().sort(Comparator.comparing(PhraseImportRowReportDTO::getRow));
+
+        return report;
+
+    }
+
+    /**
+     * A syntax error (e.g. an unterminated quote) leaves the parser in an unknown position, and an upload that breaks
+     * off cannot be read any further, so the rest of the file is reported as unreadable instead of guessing where the
+     * next row starts. The rows read before it are still imported and the report is returned as usual.
+     */
+    private static boolean hasNextRow(MappingIterator<PhraseDTO> rows, int rowNumber, PhraseImportReportDTO report) throws IOException {
+        try {
+            return rows.hasNextValue();
+        } catch (IOException exception) {
+            if (rowNumber == 0) {
+                throw exception;
+            }
+            addUnreadableRestRow(report, rowNumber + 1, exception);
+            return false;
+        }
+    }
+
+    private static void addUnreadableRestRow(PhraseImportReportDTO report, int rowNumber, IOException exception) {
+        addRow(report, rowNumber, PhraseImportOutcome.INVALID, null, null,
+                "The file could not be read from this row on: " + (exception instanceof JsonProcessingException jsonException
+                        ? jsonException.getOriginalMessage() : exception.getMessage()));
+    }
+
+    private ImportRow toImportRow(int rowNumber, PhraseDTO phraseDTO, PhraseImportReportDTO report) {
+
+        Set<ConstraintViolation<PhraseDTO>> violations = validator.validate(phraseDTO);
+
+        if (!violations.isEmpty()) {
+            addRow(report, rowNumber, PhraseImportOutcome.INVALID, null, phraseDTO.getOriginalPhrase(),
+                    violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" ")));
+            return null;
+        }
+
+        Phrase phrase = new Phrase();
+
+        try {
+            phrase.setOriginalLanguage(Language.findByCode(phraseDTO.getOriginalLanguage().toLowerCase()));
+            phrase.setMeaningLanguage(Language.findByCode(phraseDTO.getMeaningLanguage().toLowerCase()));
+        } catch (UnknownLanguageException exception) {
+            addRow(report, rowNumber, PhraseImportOutcome.INVALID, null, phraseDTO.getOriginalPhrase(), exception.getMessage());
+            return null;
+        }
+
+        phrase.setExternalPhraseId(UUID.randomUUID());
+        phrase.setOriginalPhrase(phraseDTO.getOriginalPhrase());
+        phrase.setMeaning(phraseDTO.getMeaning());
+        phrase.setNotes(phraseDTO.getNotes() == null || phraseDTO.getNotes().isBlank() ? null : phraseDTO.getNotes());
+        phrase.setStatus(Status.IN_PROGRESS);
+        phrase.setConsecutiveCorrectAnswerAmount(0);
+
+        Set<String> tagNames = phraseDTO.getPhraseTags() == null ? Set.of() : phraseDTO.getPhraseTags().stream()
+                .filter(Objects::nonNull)
+                .map(tagName -> tagName.trim().toLowerCase())
+                .filter(tagName -> !tagName.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        return new ImportRow(rowNumber, phrase, tagNames);
+
+    }
+
+    private void importBatch(UUID ownerUserAccountId, List<ImportRow> batch, PhraseImportReportDTO report) {
+
+        List<ImportRow> existingRows = new ArrayList<>();
+
+        try {
+
+            List<ImportRow> importedRows = transactionTemplate.execute(status -> insertBatch(ownerUserAccountId, batch, existingRows));
+
+            for (ImportRow row : existingRows) {
+                addRow(report, row.rowNumber(), PhraseImportOutcome.DUPLICATE, null, row.phrase().getOriginalPhrase(),
+                        "The given phrase already exists: " + row.phrase().getOriginalPhrase());
+            }
+
+            for (ImportRow row : Objects.requireNonNull(importedRows)) {
+                addRow(report, row.rowNumber(), PhraseImportOutcome.IMPORTED, row.phrase().getExternalPhraseId(),
+                        row.phrase().getOriginalPhrase(), null);
+            }
+
+        } catch (RuntimeException exception) {
+
+            log.error("A batch of {} imported phrases could not be saved", batch.size(), exception);
+
+            for (ImportRow row : batch) {
+                addRow(report, row.rowNumber(), PhraseImportOutcome.FAILED, null, row.phrase().getOriginalPhrase(),
+                        "The phrase could not be saved.");
+            }
+
+        }
+
+    }
+
+    /**
+     * Inserts the rows of one batch that do not exist yet and returns them. The others are added to {@code existingRows}.
+     */
+    private List<ImportRow> insertBatch(UUID ownerUserAccountId, List<ImportRow> batch, List<ImportRow> existingRows) {
+
+        Set<String> existingPhrases = phraseRepository.findExistingOriginalPhrases(ownerUserAccountId,
+                batch.stream().map(row -> row.phrase().getOriginalPhrase()).toList());
+
+        List<ImportRow> newRows = new ArrayList<>(batch.size());
+
+        for (ImportRow row : batch) {
+            (existingPhrases.contains(row.phrase().getOriginalPhrase()) ? existingRows : newRows).add(row);
+        }
+
+        if (newRows.isEmpty()) {
+            return newRows;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ImportRow row : newRows) {
+            row.phrase().setOwnerUserAccountId(ownerUserAccountId);
+            row.phrase().setInsertDateTime(now);
+            row.phrase().setDueAt(now);
+        }
+
+        Map<String, Long> tagIds = phraseBatchRepository.findOrInsertTags(ownerUserAccountId, newRows.stream()
+                .flatMap(row -> row.tagNames().stream())
+                .collect(Collectors.toSet()));
+
+        Map<UUID, Long> phraseIds = phraseBatchRepository.insertPhrases(newRows.stream().map(ImportRow::phrase).toList());
+
+        Map<Long, List<Long>> tagIdsByPhraseId = new HashMap<>();
+
+        for (ImportRow row : newRows) {
+            tagIdsByPhraseId.put(phraseIds.get(row.phrase().getExternalPhraseId()),
+                    row.tagNames().stream().map(tagIds::get).toList());
+        }
+
+        phraseBatchRepository.insertPhraseTags(tagIdsByPhraseId);
+
+        progressCounterService.recordAdded(ownerUserAccountId, now.toLocalDate(), newRows.size());
+
+        tagDictionaryService.evict(ownerUserAccountId);
+        quizSamplingService.evict(ownerUserAccountId);
+
+        outboxService.enqueuePhraseChangeMessage(PhraseChangeMessageDTO.builder()
+                .changeType(PhraseChangeType.IMPORTED)
+                .userAccountId(ownerUserAccountId)
+                .externalPhraseIds(newRows.stream().map(row -> row.phrase().getExternalPhraseId()).toList())
+                .timestamp(now)
+                .build());
+
+        return newRows;
+
+    }
+
+    private static void addRow(PhraseImportReportDTO report, int rowNumber, PhraseImportOutcome outcome,
+                               UUID externalPhraseId, String originalPhrase, String message) {
+
+        report.getRows().add(new PhraseImportRowReportDTO(rowNumber, outcome.getValue(), externalPhraseId, originalPhrase, message));
+
+        switch (outcome) {
+            case IMPORTED -> report.setImportedCount(report.getImportedCount() + 1);
+            case DUPLICATE -> report.setDuplicateCount(report.getDuplicateCount() + 1);
+            case INVALID -> report.setInvalidCount(report.getInvalidCount() + 1);
+            case FAILED -> report.setFailedCount(report.getFailedCount() + 1);
+        }
+
+    }
+
+    private record ImportRow(int rowNumber, Phrase phrase, Set<String> tagNames) {
+    }
+
+}
@@ -0,0 +1,264 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.exception.InvalidSearchQueryException;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.repository.PhraseSearchView;
+import com.swiftling.service.PhraseSearchService;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Searches the original phrase, meaning and notes of the user's phrases. A phrase matches when every query term
+ * matches a word it is a prefix of, or a word it is similar to (trigram word similarity of at least
+ * {@value #WORD_SIMILARITY_THRESHOLD}, the {@code pg_trgm} default). Exact and prefix matches rank before fuzzy ones
+ * and notes weigh half.
+ * <p>
+ * On PostgreSQL the search runs as one query over the full-text and trigram indexes created by the
+ * {@code db/migration/postgresql} migrations: the longest term selects the candidates through the indexes and the
+ * other terms are checked on them. It matches the same phrases, but ranks them by {@code ts_rank} plus
+ * {@code word_similarity}, which only approximates the order above. That query is not run by the build. Other
+ * databases (the embedded test database) are searched in process: the user's phrases are streamed and scored,
+ * keeping only the requested page.
+ */
+@Service
+public class PhraseSearchServiceImpl implements PhraseSearchService {
+
+    static final double WORD_SIMILARITY_THRESHOLD = 0.6;
+
+    private static final int MAX_TERMS = 8;
+    private static final double NOTES_WEIGHT = 0.5;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final PhraseRepository phraseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Boolean postgreSql;
+
+    public PhraseSearchServiceImpl(PhraseRepository phraseRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager) {
+        this.phraseRepository = phraseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Returns the IDs of the matching phrases from {@code offset} on, best match first.
+     */
+    @Override
+    public List<Long> search(UUID ownerUserAccountId, String query, int offset, int limit) {
+
+        List<String> terms = toTerms(query);
+
+        if (terms.isEmpty()) {
+            throw new InvalidSearchQueryException("The search query must contain a letter or a digit: " + query);
+        }
+
+        if (isPostgreSql()) {
+            String leadTerm = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+            return phraseRepository.searchPhraseIds(ownerUserAccountId, leadTerm,
+                    String.join(" & ", terms.stream().map(term -> term + ":*").toList()),
+                    String.join(" ", terms), limit, offset);
+        }
+
+        return searchInProcess(ownerUserAccountId, terms, offset, limit);
+
+    }
+
+    private boolean isPostgreSql() {
+
+        if (postgreSql == null) {
+            postgreSql = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+
+        return postgreSql;
+
+    }
+
+    private List<Long> searchInProcess(UUID ownerUserAccountId, List<String> terms, int offset, int limit) {
+
+        List<Set<String>> termTrigrams = terms.stream().map(PhraseSearchServiceImpl::trigrams).toList();
+
+        PriorityQueue<Match> matches = new PriorityQueue<>(Comparator.comparingDouble(Match::score).thenComparingLong(Match::phraseId));
+
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<PhraseSearchView> documents = phraseRepository.streamSearchDocuments(ownerUserAccountId)) {
+                documents.forEach(document -> {
+
+                    double score = score(terms, termTrigrams, document);
+
+                    if (score > 0) {
+                        matches.add(new Match(score, document.getPhraseId()));
+                        if (matches.size() > offset + limit) {
+                            matches.poll();
+                        }
+                    }
+
+                });
+            }
+        });
+
+        Long[] phraseIds = new Long[matches.size()];
+
+        for (int i = phraseIds.length - 1; i >= 0; i--) {
+            phraseIds[i] = matches.poll().phraseId();
+        }
+
+        return Arrays.asList(phraseIds).subList(Math.min(offset, phraseIds.length), phraseIds.length);
+
+    }
+
+    /**
+     * Average of the best score of each term, 0 when a term matches nothing.
+     */
+    private static double score(List<String> terms, List<Set<String>> termTrigrams, PhraseSearchView document) {
+
+        List<String> phraseWords = toWords(document.getOriginalPhrase() + " " + document.getMeaning());
+        List<String> notesWords = toWords(document.getNotes());
+
+        double score = 0;
+
+        for (int i = 0; i < terms.size(); i++) {
+
+            double termScore = Math.max(score(terms.get(i), termTrigrams.get(i), phraseWords),
+                    NOTES_WEIGHT * score(terms.get(i), termTrigrams.get(i), notesWords));
+
+            if (termScore == 0) {
+                return 0;
+            }
+
+            score += termScore;
+
+        }
+
+        return score / terms.size();
+
+    }
+
+    private static double score(String term, Set<String> termTrigrams, List<String> words) {
+
+        double best = 0;
+
+        for (String word : words) {
+
+            if (word.equals(term)) {
+                return 1;
+            }
+
+            if (word.startsWith(term)) {
+                best = Math.max(best, 0.5 + 0.5 * term.length() / word.length());
+                continue;
+            }
+
+            // No run of the word's trigrams can share more trigrams with the term than the whole word.
+            if (sharedTrigrams(termTrigrams, word) < WORD_SIMILARITY_THRESHOLD * termTrigrams.size()) {
+                continue;
+            }
+
+            double similarity = wordSimilarity(termTrigrams, word);
+
+            if (similarity >= WORD_SIMILARITY_THRESHOLD) {
+                best = Math.max(best, 0.5 * similarity);
+            }
+
+        }
+
+        return best;
+
+    }
+
+    /**
+     * Like {@code pg_trgm}'s {@code word_similarity}: the best trigram similarity between the term and any run of
+     * consecutive trigrams of the word.
+     */
+    static double wordSimilarity(Set<String> termTrigrams, String word) {
+
+        List<String> wordTrigrams = new ArrayList<>(trigrams(word));
+
+        double best = 0;
+
+        for (int from = 0; from < wordTrigrams.size(); from++) {
+
+            Set<String> extent = new HashSet<>();
+            int shared = 0;
+
+            for (int to = from; to < wordTrigrams.size(); to++) {
+
+                String trigram = wordTrigrams.get(to);
+
+                if (extent.add(trigram) && termTrigrams.contains(trigram)) {
+                    shared++;
+                }
+
+                best = Math.max(best, (double) shared / (termTrigrams.size() + extent.size() - shared));
+
+            }
+
+        }
+
+        return best;
+
+    }
+
+    private static int sharedTrigrams(Set<String> termTrigrams, String word) {
+
+        String padded = "  " + word + " ";
+
+        int shared = 0;
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            if (termTrigrams.contains(padded.substring(i, i + 3))) {
+                shared++;
+            }
+        }
+
+        return shared;
+
+    }
+
+    /**
+     * Trigrams of a word padded as {@code pg_trgm} does, in order of appearance.
+     */
+    static Set<String> trigrams(String word) {
+
+        String padded = "  " + word + " ";
+
+        Set<String> trigrams = new LinkedHashSet<>();
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+
+        return trigrams;
+
+    }
+
+    private static List<String> toTerms(String query) {
+        return query == null ? List.of() : toWords(query).stream().distinct().limit(MAX_TERMS).toList();
+    }
+
+    private static List<String> toWords(String text) {
+
+        if (text == null) {
+            return List.of();
+        }
+
+        return WORD_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty())
+                .toList();
+
+    }
+
+    private record Match(double score, long phraseId) {
+    }
+
+}
@@ -1,99 +1,150 @@
 package com.swiftling.service.impl;
 
-import com.google.cloud.texttospeech.v1.*;
-import com.google.protobuf.ByteString;
-import com.swiftling.client.UserAccountClient;
+import com.swiftling.config.PaginationProperties;
+import com.swiftling.config.QuizProperties;
+import com.swiftling.dto.PhraseChangeMessageDTO;
 import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.PhrasePageDTO;
 import com.swiftling.dto.PhraseResultDTO;
+import com.swiftling.dto.PhraseResultReportDTO;
 import com.swiftling.dto.ProgressDTO;
-import com.swiftling.dto.UserAccountResponseDTO;
+import com.swiftling.dto.PronunciationDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
 import com.swiftling.entity.Phrase;
 import com.swiftling.entity.PhraseTag;
 import com.swiftling.entity.Tag;
-import com.swiftling.enums.DefaultTag;
 import com.swiftling.enums.Language;
+import com.swiftling.enums.PhraseChangeType;
+import com.swiftling.enums.PhraseResultOutcome;
 import com.swiftling.enums.Status;
-import com.swiftling.exception.ExternalIdNotRetrievedException;
+import com.swiftling.enums.TagMatch;
+import com.swiftling.exception.InvalidCursorException;
 import com.swiftling.exception.PhraseAlreadyExistsException;
 import com.swiftling.exception.PhraseCanNotBeDeletedException;
 import com.swiftling.exception.PhraseNotFoundException;
-import com.swiftling.repository.GroupedProgressView;
+import com.swiftling.mapper.PhraseMapper;
+import com.swiftling.repository.OwnerProgressView;
+import com.swiftling.repository.PhraseBatchRepository;
 import com.swiftling.repository.PhraseRepository;
+import com.swiftling.repository.PhraseTagNameView;
 import com.swiftling.repository.TagRepository;
+import com.swiftling.repository.UserProgressRepository;
+import com.swiftling.repository.UserProgressView;
+import com.swiftling.service.IdentityService;
+import com.swiftling.service.OutboxService;
+import com.swiftling.service.PhraseSearchService;
 import com.swiftling.service.PhraseService;
-import com.swiftling.util.MapperUtil;
+import com.swiftling.service.ProgressCounterService;
+import com.swiftling.service.PronunciationService;
+import com.swiftling.service.QuizSamplingService;
+import com.swiftling.service.SpacedRepetitionService;
+import com.swiftling.service.TagDictionaryService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class PhraseServiceImpl implements PhraseService {
 
+    private static final int TAG_LOOKUP_CHUNK_SIZE = 1000;
+    private static final UUID MIN_USER_ACCOUNT_ID = new UUID(0L, 0L);
+    private static final UUID MAX_USER_ACCOUNT_ID = new UUID(-1L, -1L);
+
     private final PhraseRepository phraseRepository;
-    private final MapperUtil mapperUtil;
-    private final UserAccountClient userAccountClient;
+    private final PhraseMapper phraseMapper;
+    private final IdentityService identityService;
     private final TagRepository tagRepository;
-
-    public PhraseServiceImpl(PhraseRepository phraseRepository, MapperUtil mapperUtil, UserAccountClient userAccountClient, TagRepository tagRepository) {
+    private final PhraseBatchRepository phraseBatchRepository;
+    private final PronunciationService pronunciationService;
+    private final UserProgressRepository userProgressRepository;
+    private final ProgressCounterService progressCounterService;
+    private final PaginationProperties paginationProperties;
+    private final OutboxService outboxService;
+    private final TagDictionaryService tagDictionaryService;
+    private final SpacedRepetitionService spacedRepetitionService;
+    private final QuizProperties quizProperties;
+    private final QuizSamplingService quizSamplingService;
+    private final PhraseSearchService phraseSearchService;
+
+    public PhraseServiceImpl(PhraseRepository phraseRepository, PhraseMapper phraseMapper, IdentityService identityService,
+                             TagRepository tagRepository, PhraseBatchRepository phraseBatchRepository,
+                             PronunciationService pronunciationService,
+                             UserProgressRepository userProgressRepository, ProgressCounterService progressCounterService,
+                             PaginationProperties paginationProperties,
+                             OutboxService outboxService, TagDictionaryService tagDictionaryService,
+                             SpacedRepetitionService spacedRepetitionService, QuizProperties quizProperties,
+                             QuizSamplingService quizSamplingService, PhraseSearchService phraseSearchService) {
         this.phraseRepository = phraseRepository;
-        this.mapperUtil = mapperUtil;
-        this.userAccountClient = userAccountClient;
+        this.phraseMapper = phraseMapper;
+        this.identityService = identityService;
         this.tagRepository = tagRepository;
+        this.phraseBatchRepository = phraseBatchRepository;
+        this.pronunciationService = pronunciationService;
+        this.userProgressRepository = userProgressRepository;
+        this.progressCounterService = progressCounterService;
+        this.paginationProperties = paginationProperties;
+        this.outboxService = outboxService;
+        this.tagDictionaryService = tagDictionaryService;
+        this.spacedRepetitionService = spacedRepetitionService;
+        this.quizProperties = quizProperties;
+        this.quizSamplingService = quizSamplingService;
+        this.phraseSearchService = phraseSearchService;
     }
 
     @Override
+    @Transactional
     public PhraseDTO create(PhraseDTO phraseDTO) {
 
+        UUID ownerUserAccountId = getOwnerUserAccountId();
+
         phraseRepository
-                .findByOriginalPhraseAndOwnerUserAccountId(phraseDTO.getOriginalPhrase(), getOwnerUserAccountId())
+                .findByOriginalPhraseAndOwnerUserAccountId(phraseDTO.getOriginalPhrase(), ownerUserAccountId)
                 .ifPresent(existingPhrase -> {
                     throw new PhraseAlreadyExistsException("The given phrase already exists: " + existingPhrase.getOriginalPhrase());
                 });
 
-        Phrase phraseToSave = mapperUtil.convert(phraseDTO, new Phrase());
+        Phrase phraseToSave = phraseMapper.toPhrase(phraseDTO);
 
         phraseToSave.setExternalPhraseId(UUID.randomUUID());
         phraseToSave.setConsecutiveCorrectAnswerAmount(0);
-        phraseToSave.setOriginalLanguage(Language.findByCode(phraseDTO.getOriginalLanguage().toLowerCase()));
-        phraseToSave.setMeaningLanguage(Language.findByCode(phraseDTO.getMeaningLanguage().toLowerCase()));
         phraseToSave.setStatus(Status.IN_PROGRESS);
-        phraseToSave.setOwnerUserAccountId(getOwnerUserAccountId());
+        phraseToSave.setOwnerUserAccountId(ownerUserAccountId);
         phraseToSave.setInsertDateTime(LocalDateTime.now());
-        phraseToSave.setNotes(phraseDTO.getNotes());
+        spacedRepetitionService.resetSchedule(phraseToSave, phraseToSave.getInsertDateTime());
 
         phraseToSave.setPhraseTags(new ArrayList<>());
 
-        Phrase savedPhrase = phraseRepository.save(phraseToSave);
+        setPhraseTags(phraseToSave, phraseDTO);
 
-        setPhraseTags(savedPhrase, phraseDTO);
+        Phrase savedPhrase = phraseRepository.save(phraseToSave);
 
-        savedPhrase = phraseRepository.save(savedPhrase);
+        progressCounterService.recordAdded(savedPhrase);
 
-        PhraseDTO phraseToReturn = mapperUtil.convert(savedPhrase, new PhraseDTO());
+        tagDictionaryService.evict(ownerUserAccountId);
+        quizSamplingService.evict(ownerUserAccountId);
 
-        setPhraseDTOTags(savedPhrase, phraseToReturn);
+        PhraseDTO savedPhraseDTO = phraseMapper.toPhraseDTO(savedPhrase);
 
-        phraseToReturn.setOriginalLanguage(savedPhrase.getOriginalLanguage().getValue());
-        phraseToReturn.setMeaningLanguage(savedPhrase.getMeaningLanguage().getValue());
+        enqueuePhraseChange(PhraseChangeType.CREATED, ownerUserAccountId, savedPhraseDTO.getExternalPhraseId(), savedPhraseDTO);
 
-        return phraseToReturn;
+        return savedPhraseDTO;
 
     }
 
     @Override
-    public List<PhraseDTO> getPhrases(String status, String languageCode) {
+    public List<PhraseDTO> getPhrases(String status, String languageCode, List<String> tagNames, String tagMatch) {
 
         String language;
 
@@ -103,40 +154,82 @@ public class PhraseServiceImpl implements PhraseService {
             language = null;
         }
 
-        return phraseRepository.findAllByOwnerUserAccountIdAndOrStatusAndOrLanguage(getOwnerUserAccountId(), status, language)
-                .stream().map(phrase -> {
-
-                    PhraseDTO phraseDTO = mapperUtil.convert(phrase, new PhraseDTO());
+        Set<String> filterTagNames = toFilterTagNames(tagNames);
 
-                    phraseDTO.setOriginalLanguage(phrase.getOriginalLanguage().getValue());
-                    phraseDTO.setMeaningLanguage(phrase.getMeaningLanguage().getValue());
-                    phraseDTO.setStatus(phrase.getStatus().getValue());
+        UUID ownerUserAccountId = getOwnerUserAccountId();
 
-                    setPhraseDTOTags(phrase, phraseDTO);
+        List<Phrase> phrases = filterTagNames.isEmpty()
+                ? phraseRepository.findAllByOwnerUserAccountIdAndOrStatusAndOrLanguage(ownerUserAccountId, status, language)
+                : phraseRepository.findAllByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(ownerUserAccountId, status, language,
+                        filterTagNames, getRequiredTagCount(filterTagNames, tagMatch));
 
-                    return phraseDTO;
+        Map<Long, List<String>> tagNamesByPhraseId = getTagNamesByPhraseId(phrases);
 
-                }).toList();
+        return phrases.stream()
+                .map(phrase -> toPhraseDTO(phrase, null, tagNamesByPhraseId))
+                .toList();
 
     }
 
     @Override
-    public List<PhraseDTO> getLastTenPhrases() {
+    public PhrasePageDTO getPhrasePage(String status, String languageCode, List<String> tagNames, String tagMatch,
+                                       String cursor, Integer pageSize, Set<String> fields) {
+
+        String language = languageCode != null ? Language.findByCode(languageCode.toLowerCase()).toString() : null;
+
+        Set<String> filterTagNames = toFilterTagNames(tagNames);
+        int requiredTagCount = getRequiredTagCount(filterTagNames, tagMatch);
+
+        int limit = pageSize != null ? Math.max(1, Math.min(pageSize, paginationProperties.getMaxPageSize())) : paginationProperties.getDefaultPageSize();
+
+        UUID ownerUserAccountId = getOwnerUserAccountId();
+
+        List<Phrase> phrases;
+
+        if (cursor == null || cursor.isBlank()) {
+            phrases = filterTagNames.isEmpty()
+                    ? phraseRepository.findFirstPageByOwnerUserAccountIdAndOrStatusAndOrLanguage(ownerUserAccountId, status, language, limit + 1)
+                    : phraseRepository.findFirstPageByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(ownerUserAccountId, status, language,
+                            filterTagNames, requiredTagCount, limit + 1);
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            phrases = filterTagNames.isEmpty()
+                    ? phraseRepository.findNextPageByOwnerUserAccountIdAndOrStatusAndOrLanguage(ownerUserAccountId, status, language,
+                            pageCursor.insertDateTime(), pageCursor.id(), limit + 1)
+                    : phraseRepository.findNextPageByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(ownerUserAccountId, status, language,
+                            filterTagNames, requiredTagCount, pageCursor.insertDateTime(), pageCursor.id(), limit + 1);
+        }
+
+        String nextCursor = null;
 
-        return phraseRepository.findTop10ByOwnerUserAccountIdOrderByInsertDateTimeDesc(getOwnerUserAccountId())
-                .stream().map(phrase -> {
+        if (phrases.size() > limit) {
+            phrases = phrases.subList(0, limit);
+            Phrase lastPhrase = phrases.get(limit - 1);
+            nextCursor = new PageCursor(lastPhrase.getInsertDateTime(), lastPhrase.getId()).encode();
+        }
+
+        Map<Long, List<String>> tagNamesByPhraseId = fields == null || fields.isEmpty() || fields.contains("phraseTags")
+                ? getTagNamesByPhraseId(phrases)
+                : Map.of();
+
+        List<PhraseDTO> phraseDTOs = phrases.stream()
+                .map(phrase -> toPhraseDTO(phrase, fields, tagNamesByPhraseId))
+                .toList();
+
+        return new PhrasePageDTO(phraseDTOs, nextCursor);
 
-                    PhraseDTO phraseDTO = mapperUtil.convert(phrase, new PhraseDTO());
+    }
 
-                    phraseDTO.setOriginalLanguage(phrase.getOriginalLanguage().getValue());
-                    phraseDTO.setMeaningLanguage(phrase.getMeaningLanguage().getValue());
-                    phraseDTO.setStatus(phrase.getStatus().getValue());
+    @Override
+    public List<PhraseDTO> getLastTenPhrases() {
 
-                    setPhraseDTOTags(phrase, phraseDTO);
+        List<Phrase> phrases = phraseRepository.findTop10ByOwnerUserAccountIdOrderByInsertDateTimeDesc(getOwnerUserAccountId());
 
-                    return phraseDTO;
+        Map<Long, List<String>> tagNamesByPhraseId = getTagNamesByPhraseId(phrases);
 
-                }).toList();
+        return phrases.stream()
+                .map(phrase -> toPhraseDTO(phrase, null, tagNamesByPhraseId))
+                .toList();
 
     }
 
@@ -146,15 +239,7 @@ public class PhraseServiceImpl implements PhraseService {
         Phrase phrase = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
                 .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
 
-        PhraseDTO phraseDTO = mapperUtil.convert(phrase, new PhraseDTO());
-
-        phraseDTO.setOriginalLanguage(phrase.getOriginalLanguage().getValue());
-        phraseDTO.setMeaningLanguage(phrase.getMeaningLanguage().getValue());
-        phraseDTO.setStatus(phrase.getStatus().getValue());
-
-        setPhraseDTOTags(phrase, phraseDTO);
-
-        return phraseDTO;
+        return toPhraseDTO(phrase, null, getTagNamesByPhraseId(List.of(phrase)));
 
     }
 
@@ -175,31 +260,101 @@ public class PhraseServiceImpl implements PhraseService {
                 .toList();
     }
 
+    /**
+     * Returns the phrases that are due the soonest (overdue ones first) with one read of the
+     * (owner, [original language,] due at) index, so quiz clients no longer download the whole vocabulary.
+     */
     @Override
-    public Set<String> getTags() {
+    public List<PhraseDTO> getNextQuizBatch(String languageCode, Integer batchSize) {
+
+        int limit = batchSize != null ? Math.max(1, Math.min(batchSize, quizProperties.getMaxBatchSize())) : quizProperties.getDefaultBatchSize();
 
-        Set<String> allTags = new TreeSet<>();
+        UUID ownerUserAccountId = getOwnerUserAccountId();
+
+        List<Phrase> phrases = languageCode != null
+                ? phraseRepository.findByOwnerUserAccountIdAndOriginalLanguageOrderByDueAtAsc(ownerUserAccountId,
+                        Language.findByCode(languageCode.toLowerCase()), Limit.of(limit))
+                : phraseRepository.findByOwnerUserAccountIdOrderByDueAtAsc(ownerUserAccountId, Limit.of(limit));
 
-        List<String> defaultTags = Stream.of(DefaultTag.values())
-                .map(DefaultTag::getValue).toList();
+        Map<Long, List<String>> tagNamesByPhraseId = getTagNamesByPhraseId(phrases);
 
-        List<String> savedTags = tagRepository.findAllByPhraseOwner(getOwnerUserAccountId())
-                .stream().map(tag -> tag.getTagName().toLowerCase())
+        return phrases.stream()
+                .map(phrase -> toPhraseDTO(phrase, null, tagNamesByPhraseId))
                 .toList();
 
-        allTags.addAll(defaultTags);
-        allTags.addAll(savedTags);
+    }
+
+    /**
+     * Draws phrases at random, favouring the ones with fewer consecutive correct answers. The sample is drawn in
+     * memory (see {@link QuizSamplingService}) and only the drawn phrases are read by primary key.
+     */
+    @Override
+    public List<PhraseDTO> getRandomQuiz(String status, String languageCode, String tagName, Integer size) {
 
-        return allTags;
+        Status requestedStatus = status != null ? Status.findByValue(status) : null;
+        Language language = languageCode != null ? Language.findByCode(languageCode.toLowerCase()) : null;
+
+        int limit = size != null ? Math.max(1, Math.min(size, quizProperties.getMaxBatchSize())) : quizProperties.getDefaultBatchSize();
+
+        List<Long> phraseIds = quizSamplingService.sample(getOwnerUserAccountId(), requestedStatus, language,
+                tagName != null && !tagName.isBlank() ? tagName : null, limit);
+
+        // Phrases deleted on another instance since the snapshot was loaded are skipped.
+        List<Phrase> phrases = findAllByIdInOrder(phraseIds);
+
+        Map<Long, List<String>> tagNamesByPhraseId = getTagNamesByPhraseId(phrases);
+
+        return phrases.stream()
+                .map(phrase -> toPhraseDTO(phrase, null, tagNamesByPhraseId))
+                .toList();
 
     }
 
+    /**
+     * Returns one page of the phrases matching the query, best match first (see {@link PhraseSearchService}).
+     */
     @Override
+    public PhrasePageDTO search(String query, String cursor, Integer pageSize) {
+
+        int limit = pageSize != null ? Math.max(1, Math.min(pageSize, paginationProperties.getMaxPageSize())) : paginationProperties.getDefaultPageSize();
+
+        int offset = cursor == null || cursor.isBlank() ? 0 : SearchCursor.decode(cursor).offset();
+
+        List<Long> phraseIds = phraseSearchService.search(getOwnerUserAccountId(), query, offset, limit + 1);
+
+        String nextCursor = null;
+
+        if (phraseIds.size() > limit) {
+            phraseIds = phraseIds.subList(0, limit);
+            nextCursor = new SearchCursor(offset + limit).encode();
+        }
+
+        List<Phrase> phrases = findAllByIdInOrder(phraseIds);
+
+        Map<Long, List<String>> tagNamesByPhraseId = getTagNamesByPhraseId(phrases);
+
+        List<PhraseDTO> phraseDTOs = phrases.stream()
+                .map(phrase -> toPhraseDTO(phrase, null, tagNamesByPhraseId))
+                .toList();
+
+        return new PhrasePageDTO(phraseDTOs, nextCursor);
+
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return tagDictionaryService.getTags(getOwnerUserAccountId());
+    }
+
+    @Override
+    @Transactional
     public PhraseDTO update(UUID externalPhraseId, PhraseDTO phraseDTO) {
 
         Phrase foundPhraseToUpdate = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
                 .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
 
+        progressCounterService.recordRemoved(foundPhraseToUpdate);
+
 //        foundPhraseToUpdate.setExternalPhraseId(foundPhraseToUpdate.getExternalPhraseId());
         foundPhraseToUpdate.setConsecutiveCorrectAnswerAmount(0);
         foundPhraseToUpdate.setOriginalPhrase(phraseDTO.getOriginalPhrase());
@@ -211,31 +366,51 @@ public class PhraseServiceImpl implements PhraseService {
 //        foundPhraseToUpdate.setOwnerUserAccountId(foundPhraseToUpdate.getOwnerUserAccountId());
         foundPhraseToUpdate.setInsertDateTime(LocalDateTime.now());
         foundPhraseToUpdate.setNotes(phraseDTO.getNotes());
+        spacedRepetitionService.resetSchedule(foundPhraseToUpdate, foundPhraseToUpdate.getInsertDateTime());
 
         setPhraseTags(foundPhraseToUpdate, phraseDTO);
 
         Phrase updatedPhrase = phraseRepository.save(foundPhraseToUpdate);
 
-        PhraseDTO phraseToReturn = mapperUtil.convert(updatedPhrase, new PhraseDTO());
+        progressCounterService.recordAdded(updatedPhrase);
+
+        tagDictionaryService.evict(updatedPhrase.getOwnerUserAccountId());
+        quizSamplingService.evict(updatedPhrase.getOwnerUserAccountId());
 
-        setPhraseDTOTags(updatedPhrase, phraseToReturn);
+        PhraseDTO updatedPhraseDTO = phraseMapper.toPhraseDTO(updatedPhrase);
 
-        phraseToReturn.setOriginalLanguage(updatedPhrase.getOriginalLanguage().getValue());
-        phraseToReturn.setMeaningLanguage(updatedPhrase.getMeaningLanguage().getValue());
+        enqueuePhraseChange(PhraseChangeType.UPDATED, updatedPhrase.getOwnerUserAccountId(), externalPhraseId, updatedPhraseDTO);
 
-        return phraseToReturn;
+        return updatedPhraseDTO;
 
     }
 
     @Override
-    public void updateStatuses(Map<UUID, PhraseResultDTO> resultForEachPhrase) {
+    @Transactional
+    public List<PhraseResultReportDTO> updateStatuses(Map<UUID, PhraseResultDTO> resultForEachPhrase) {
 
         UUID ownerUserAccountId = getOwnerUserAccountId();
 
+        Map<UUID, Phrase> foundPhrases = new HashMap<>();
+
+        for (Phrase phrase : phraseRepository.findAllByExternalPhraseIdInAndOwnerUserAccountId(resultForEachPhrase.keySet(), ownerUserAccountId)) {
+            foundPhrases.put(phrase.getExternalPhraseId(), phrase);
+        }
+
+        Map<Phrase, Status> previousStatuses = new IdentityHashMap<>();
+        List<PhraseResultReportDTO> report = new ArrayList<>();
+        LocalDateTime answeredAt = LocalDateTime.now();
+
         resultForEachPhrase.forEach((externalPhraseId, phraseResultDTO) -> {
 
-            Phrase foundPhrase = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, ownerUserAccountId)
-                    .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
+            Phrase foundPhrase = foundPhrases.get(externalPhraseId);
+
+            if (foundPhrase == null) {
+                report.add(new PhraseResultReportDTO(externalPhraseId, PhraseResultOutcome.NOT_FOUND.getValue(), null, null));
+                return;
+            }
+
+            previousStatuses.putIfAbsent(foundPhrase, foundPhrase.getStatus());
 
             if (phraseResultDTO.getAnsweredWrongOrTimedOutAtLeastOnce()) {
                 foundPhrase.setConsecutiveCorrectAnswerAmount(phraseResultDTO.getConsecutiveCorrectAmount());
@@ -243,19 +418,39 @@ public class PhraseServiceImpl implements PhraseService {
                 foundPhrase.setConsecutiveCorrectAnswerAmount(foundPhrase.getConsecutiveCorrectAnswerAmount() + phraseResultDTO.getConsecutiveCorrectAmount());
             }
 
+            spacedRepetitionService.recordAnswer(foundPhrase, !phraseResultDTO.getAnsweredWrongOrTimedOutAtLeastOnce(), answeredAt);
+
             if (foundPhrase.getConsecutiveCorrectAnswerAmount() >= 10) {
                 foundPhrase.setStatus(Status.LEARNED);
             } else {
                 foundPhrase.setStatus(Status.IN_PROGRESS);
             }
 
-            phraseRepository.save(foundPhrase);
+            report.add(new PhraseResultReportDTO(externalPhraseId, PhraseResultOutcome.UPDATED.getValue(),
+                    foundPhrase.getStatus().getValue(), foundPhrase.getConsecutiveCorrectAnswerAmount()));
 
         });
 
+        // The loaded phrases are managed, so their changes are flushed as one JDBC batch when the transaction commits.
+        progressCounterService.recordStatusChanges(previousStatuses);
+
+        quizSamplingService.recordAnswers(ownerUserAccountId, foundPhrases.values());
+
+        if (!foundPhrases.isEmpty()) {
+            outboxService.enqueueUserProgressMessage(UserProgressMessageDTO.builder()
+                    .userAccountId(ownerUserAccountId)
+                    .progress(toProgressMap(userProgressRepository.getProgress(ownerUserAccountId,
+                            getStartOfMonth(), getStartOfWeek(), getStartOfDay())))
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        return report;
+
     }
 
     @Override
+    @Transactional
     public void delete(UUID externalPhraseId) {
 
         Phrase phraseToDelete = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
@@ -263,13 +458,21 @@ public class PhraseServiceImpl implements PhraseService {
 
         try {
             phraseRepository.delete(phraseToDelete);
+            phraseRepository.flush();
+            progressCounterService.recordRemoved(phraseToDelete);
         } catch (Throwable exception) {
             throw new PhraseCanNotBeDeletedException("The phrase can not be deleted: " + externalPhraseId);
         }
 
+        tagDictionaryService.evict(phraseToDelete.getOwnerUserAccountId());
+        quizSamplingService.evict(phraseToDelete.getOwnerUserAccountId());
+
+        enqueuePhraseChange(PhraseChangeType.DELETED, phraseToDelete.getOwnerUserAccountId(), externalPhraseId, null);
+
     }
 
     @Override
+    @Transactional
     public void deleteAllByUser(UUID externalOwnerUserAccountId) {
 
         try {
@@ -279,6 +482,21 @@ public class PhraseServiceImpl implements PhraseService {
 
             List<Tag> allUserTags = tagRepository.findAllByOwnerUserAccountId(externalOwnerUserAccountId);
             tagRepository.deleteAll(allUserTags);
+            tagRepository.flush();
+
+            progressCounterService.deleteAllByUser(externalOwnerUserAccountId);
+
+            tagDictionaryService.evict(externalOwnerUserAccountId);
+            quizSamplingService.evict(externalOwnerUserAccountId);
+
+            if (!allUserPhrases.isEmpty()) {
+                outboxService.enqueuePhraseChangeMessage(PhraseChangeMessageDTO.builder()
+                        .changeType(PhraseChangeType.DELETED)
+                        .userAccountId(externalOwnerUserAccountId)
+                        .externalPhraseIds(allUserPhrases.stream().map(Phrase::getExternalPhraseId).toList())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+            }
 
         } catch (Throwable exception) {
             throw new PhraseCanNotBeDeletedException("The phrases can not be deleted.");
@@ -287,231 +505,330 @@ public class PhraseServiceImpl implements PhraseService {
     }
 
     @Override
-    public void originalPhraseSynthesizeSpeech(UUID externalPhraseId, String outputFileName) throws IOException {
+    public PronunciationDTO getOriginalPronunciation(UUID externalPhraseId) {
 
         Phrase foundPhrase = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
                 .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
 
-        String languageCode = foundPhrase.getOriginalLanguage().getCode();
+        return pronunciationService.getPronunciation(foundPhrase.getOriginalPhrase(), foundPhrase.getOriginalLanguage());
 
-        try (TextToSpeechClient textToSpeechClient = TextToSpeechClient.create()) {
+    }
+
+    @Override
+    public PronunciationDTO getMeaningPronunciation(UUID externalPhraseId) {
 
-            SynthesisInput input = SynthesisInput.newBuilder()
-                    .setText(foundPhrase.getOriginalPhrase())
-                    .build();
+        Phrase foundPhrase = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
+                .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
 
-            VoiceSelectionParams voice = VoiceSelectionParams.newBuilder()
-                    .setLanguageCode(languageCode)
-                    .setSsmlGender(SsmlVoiceGender.NEUTRAL)
-                    .build();
+        return pronunciationService.getPronunciation(foundPhrase.getMeaning(), foundPhrase.getMeaningLanguage());
 
-            AudioConfig audioConfig = AudioConfig.newBuilder()
-                    .setAudioEncoding(AudioEncoding.MP3)
-                    .build();
+    }
 
-            SynthesizeSpeechResponse response = textToSpeechClient.synthesizeSpeech(input, voice, audioConfig);
-            ByteString audioContents = response.getAudioContent();
+    @Override
+    public String getOriginalPronunciationETag(UUID externalPhraseId) {
 
-            try (OutputStream out = new FileOutputStream(outputFileName)) {
-                out.write(audioContents.toByteArray());
-                System.out.println("Audio content written to file: " + outputFileName);
-            }
+        Phrase foundPhrase = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
+                .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
 
-        }
+        return pronunciationService.getETag(foundPhrase.getOriginalPhrase(), foundPhrase.getOriginalLanguage());
 
     }
 
     @Override
-    public void meaningPhraseSynthesizeSpeech(UUID externalPhraseId, String outputFileName) throws IOException {
+    public String getMeaningPronunciationETag(UUID externalPhraseId) {
 
         Phrase foundPhrase = phraseRepository.findByExternalPhraseIdAndOwnerUserAccountId(externalPhraseId, getOwnerUserAccountId())
                 .orElseThrow(() -> new PhraseNotFoundException("The phrase does not exist: " + externalPhraseId));
 
-        String languageCode = foundPhrase.getMeaningLanguage().getCode();
+        return pronunciationService.getETag(foundPhrase.getMeaning(), foundPhrase.getMeaningLanguage());
 
-        try (TextToSpeechClient textToSpeechClient = TextToSpeechClient.create()) {
+    }
 
-            SynthesisInput input = SynthesisInput.newBuilder()
-                    .setText(foundPhrase.getMeaning())
-                    .build();
+    @Override
+    public Map<String, ProgressDTO> getProgress() {
 
-            VoiceSelectionParams voice = VoiceSelectionParams.newBuilder()
-                    .setLanguageCode(languageCode)
-                    .setSsmlGender(SsmlVoiceGender.NEUTRAL)
-                    .build();
+        UserProgressView progress = userProgressRepository.getProgress(getOwnerUserAccountId(),
+                getStartOfMonth(), getStartOfWeek(), getStartOfDay());
 
-            AudioConfig audioConfig = AudioConfig.newBuilder()
-                    .setAudioEncoding(AudioEncoding.MP3)
-                    .build();
+        return toProgressMap(progress);
 
-            SynthesizeSpeechResponse response = textToSpeechClient.synthesizeSpeech(input, voice, audioConfig);
-            ByteString audioContents = response.getAudioContent();
+    }
 
-            try (OutputStream out = new FileOutputStream(outputFileName)) {
-                out.write(audioContents.toByteArray());
-                System.out.println("Audio content written to file: " + outputFileName);
-            }
+    /**
+     * Progress of the next {@code pageSize} users after {@code afterUserAccountId} up to and including
+     * {@code upToUserAccountId} ({@code null} for an open end), keyed in user order so the last key is the cursor
+     * of the next page.
+     */
+    @Override
+    public LinkedHashMap<UUID, Map<String, ProgressDTO>> getUsersProgressPage(UUID afterUserAccountId, UUID upToUserAccountId, int pageSize) {
+
+        List<OwnerProgressView> page = userProgressRepository.getProgressPage(
+                afterUserAccountId != null ? afterUserAccountId : MIN_USER_ACCOUNT_ID,
+                upToUserAccountId != null ? upToUserAccountId : MAX_USER_ACCOUNT_ID,
+                getStartOfMonth(), getStartOfWeek(), getStartOfDay(), Limit.of(pageSize));
 
+        LinkedHashMap<UUID, Map<String, ProgressDTO>> progressPage = LinkedHashMap.newLinkedHashMap(page.size());
+
+        for (OwnerProgressView progress : page) {
+            progressPage.put(progress.getOwnerUserAccountId(), toProgressMap(progress));
         }
 
+        return progressPage;
+
     }
 
-    @Override
-    public Map<String, ProgressDTO> getProgress() {
+    private static Map<String, ProgressDTO> toProgressMap(UserProgressView progress) {
 
-        Map<String, ProgressDTO> progressMap = new HashMap<>();
+        Map<String, ProgressDTO> progressMap = HashMap.newHashMap(4);
 
-        getTotalProgress(progressMap);
-        getMonthlyProgress(progressMap);
-        getWeeklyProgress(progressMap);
-        getDailyProgress(progressMap);
+        progressMap.put("total-progress", new ProgressDTO(progress.getTotalLearned(), progress.getTotalAdded()));
+        progressMap.put("monthly-progress", new ProgressDTO(progress.getMonthlyLearned(), progress.getMonthlyAdded()));
+        progressMap.put("weekly-progress", new ProgressDTO(progress.getWeeklyLearned(), progress.getWeeklyAdded()));
+        progressMap.put("daily-progress", new ProgressDTO(progress.getDailyLearned(), progress.getDailyAdded()));
 
         return progressMap;
 
     }
 
-    @Override
-    public Map<UUID, Map<String, ProgressDTO>> getAllUsersProgress() {
+    private LocalDate getStartOfMonth() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
 
-        Map<UUID, Map<String, ProgressDTO>> allProgress = new HashMap<>();
+    private LocalDate getStartOfWeek() {
+        DayOfWeek firstDayOfWeek = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(firstDayOfWeek));
+    }
 
-        populateProgressMap(allProgress, phraseRepository.getTotalProgressForAllUsers(), "total-progress");
+    private LocalDate getStartOfDay() {
+        return LocalDate.now();
+    }
 
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        populateProgressMap(allProgress, phraseRepository.getProgressSince(monthStart), "monthly-progress");
+    private UUID getOwnerUserAccountId() {
+        return identityService.getOwnerUserAccountId();
+    }
 
-        DayOfWeek firstDayOfWeek = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
-        LocalDateTime weekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(firstDayOfWeek)).atStartOfDay();
-        populateProgressMap(allProgress, phraseRepository.getProgressSince(weekStart), "weekly-progress");
+    /**
+     * Stores the change in the outbox within the current transaction, so it is only published if the change commits.
+     */
+    private void enqueuePhraseChange(PhraseChangeType changeType, UUID ownerUserAccountId, UUID externalPhraseId, PhraseDTO phraseDTO) {
+
+        PhraseChangeMessageDTO.PhraseChangeMessageDTOBuilder message = PhraseChangeMessageDTO.builder()
+                .changeType(changeType)
+                .userAccountId(ownerUserAccountId)
+                .externalPhraseId(externalPhraseId)
+                .timestamp(LocalDateTime.now());
+
+        if (phraseDTO != null) {
+            message.originalPhrase(phraseDTO.getOriginalPhrase())
+                    .originalLanguage(phraseDTO.getOriginalLanguage())
+                    .meaning(phraseDTO.getMeaning())
+                    .meaningLanguage(phraseDTO.getMeaningLanguage())
+                    .phraseTags(phraseDTO.getPhraseTags())
+                    .status(phraseDTO.getStatus());
+        }
 
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        populateProgressMap(allProgress, phraseRepository.getProgressSince(todayStart), "daily-progress");
+        outboxService.enqueuePhraseChangeMessage(message.build());
 
-        return allProgress;
     }
 
-    private void getTotalProgress(Map<String, ProgressDTO> progressMap) {
+    /**
+     * Resolves all requested tags with one query and inserts the missing ones as one batch. Phrase tags that are
+     * still requested are kept, so no row is deleted and inserted again and everything is written by a single flush.
+     */
+    private void setPhraseTags(Phrase phrase, PhraseDTO phraseDTO) {
+
+        Collection<Tag> tags = findOrCreateTags(phrase.getOwnerUserAccountId(), phraseDTO.getPhraseTags());
 
-        Integer totalLearnedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndStatus(getOwnerUserAccountId(), Status.LEARNED);
-        Integer totalAddedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountId(getOwnerUserAccountId());
+        Set<Long> tagIds = tags.stream().map(Tag::getId).collect(Collectors.toSet());
 
-        ProgressDTO totalProgress = new ProgressDTO(totalLearnedPhrasesAmount, totalAddedPhrasesAmount);
+        phrase.getPhraseTags().removeIf(phraseTag -> !tagIds.contains(phraseTag.getTag().getId()));
 
-        progressMap.put("total-progress", totalProgress);
+        Set<Long> existingTagIds = phrase.getPhraseTags().stream()
+                .map(phraseTag -> phraseTag.getTag().getId())
+                .collect(Collectors.toSet());
+
+        for (Tag tag : tags) {
+            if (existingTagIds.add(tag.getId())) {
+                phrase.getPhraseTags().add(new PhraseTag(phrase, tag));
+            }
+        }
 
     }
 
-    private void getMonthlyProgress(Map<String, ProgressDTO> progressMap) {
+    private Collection<Tag> findOrCreateTags(UUID ownerUserAccountId, List<String> requestedTagNames) {
 
-        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        if (requestedTagNames == null || requestedTagNames.isEmpty()) {
+            return List.of();
+        }
 
-        Integer monthlyLearnedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndStatusAndInsertDateTimeAfter(getOwnerUserAccountId(), Status.LEARNED, startOfMonth);
-        Integer monthlyAddedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndInsertDateTimeAfter(getOwnerUserAccountId(), startOfMonth);
+        Set<String> tagNames = requestedTagNames.stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        ProgressDTO monthlyProgress = new ProgressDTO(monthlyLearnedPhrasesAmount, monthlyAddedPhrasesAmount);
+        List<Tag> tags = tagRepository.findAllByOwnerUserAccountIdAndTagNameIn(ownerUserAccountId, tagNames);
 
-        progressMap.put("monthly-progress", monthlyProgress);
+        if (tags.size() < tagNames.size()) {
 
-    }
+            Set<String> foundTagNames = tags.stream().map(Tag::getTagName).collect(Collectors.toSet());
 
-    private void getWeeklyProgress(Map<String, ProgressDTO> progressMap) {
+            phraseBatchRepository.insertTags(ownerUserAccountId, tagNames.stream()
+                    .filter(tagName -> !foundTagNames.contains(tagName))
+                    .toList());
 
-        LocalDate today = LocalDate.now();
+            tags = tagRepository.findAllByOwnerUserAccountIdAndTagNameIn(ownerUserAccountId, tagNames);
 
-        WeekFields weekFields = WeekFields.of(Locale.getDefault());
-        DayOfWeek firstDayOfWeek = weekFields.getFirstDayOfWeek();
+        }
 
-        LocalDateTime startOfWeek = today.with(TemporalAdjusters.previousOrSame(firstDayOfWeek)).atStartOfDay();
+        Map<String, Tag> tagsByName = tags.stream().collect(Collectors.toMap(Tag::getTagName, tag -> tag));
 
-        Integer weeklyLearnedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndStatusAndInsertDateTimeAfter(getOwnerUserAccountId(), Status.LEARNED, startOfWeek);
-        Integer weeklyAddedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndInsertDateTimeAfter(getOwnerUserAccountId(), startOfWeek);
+        return tagNames.stream().map(tagsByName::get).toList();
 
-        ProgressDTO weeklyProgress = new ProgressDTO(weeklyLearnedPhrasesAmount, weeklyAddedPhrasesAmount);
+    }
 
-        progressMap.put("weekly-progress", weeklyProgress);
+    private static Set<String> toFilterTagNames(List<String> tagNames) {
 
-    }
+        if (tagNames == null || tagNames.isEmpty()) {
+            return Set.of();
+        }
 
-    private void getDailyProgress(Map<String, ProgressDTO> progressMap) {
+        return tagNames.stream()
+                .filter(tagName -> tagName != null && !tagName.isBlank())
+                .map(tagName -> tagName.trim().toLowerCase())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+    }
 
-        Integer dailyLearnedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndStatusAndInsertDateTimeAfter(getOwnerUserAccountId(), Status.LEARNED, startOfDay);
-        Integer dailyAddedPhrasesAmount = phraseRepository.countAllByOwnerUserAccountIdAndInsertDateTimeAfter(getOwnerUserAccountId(), startOfDay);
+    /**
+     * The number of the filter tags a phrase must have: one of them by default, all of them for tag-match=all.
+     */
+    private static int getRequiredTagCount(Set<String> filterTagNames, String tagMatch) {
+        return tagMatch != null && TagMatch.findByValue(tagMatch.toLowerCase()) == TagMatch.ALL ? filterTagNames.size() : 1;
+    }
 
-        ProgressDTO dailyProgress = new ProgressDTO(dailyLearnedPhrasesAmount, dailyAddedPhrasesAmount);
+    private List<Phrase> findAllByIdInOrder(List<Long> phraseIds) {
 
-        progressMap.put("daily-progress", dailyProgress);
+        Map<Long, Phrase> phrasesById = phraseRepository.findAllById(phraseIds).stream()
+                .collect(Collectors.toMap(Phrase::getId, phrase -> phrase));
+
+        return phraseIds.stream()
+                .map(phrasesById::get)
+                .filter(Objects::nonNull)
+                .toList();
 
     }
 
-    private UUID getOwnerUserAccountId() {
+    /**
+     * Loads the tag names of all given phrases with one query per {@value #TAG_LOOKUP_CHUNK_SIZE} phrases,
+     * instead of walking the lazy {@code phraseTags} and {@code tag} associations phrase by phrase.
+     */
+    private Map<Long, List<String>> getTagNamesByPhraseId(List<Phrase> phrases) {
 
-        try {
+        Map<Long, List<String>> tagNamesByPhraseId = new HashMap<>();
 
-            UUID ownerUserAccountId;
+        List<Long> phraseIds = phrases.stream().map(Phrase::getId).toList();
 
-            ResponseEntity<UserAccountResponseDTO> response = userAccountClient.getUserAccountExternalId();
+        for (int from = 0; from < phraseIds.size(); from += TAG_LOOKUP_CHUNK_SIZE) {
 
-            if (Objects.requireNonNull(response.getBody()).isSuccess() && Objects.requireNonNull(response.getBody()).getData() != null) {
-                ownerUserAccountId = UUID.fromString((String) response.getBody().getData());
-            } else {
-                throw new ExternalIdNotRetrievedException("The external ID of the user account could not be retrieved.");
-            }
+            List<Long> chunk = phraseIds.subList(from, Math.min(from + TAG_LOOKUP_CHUNK_SIZE, phraseIds.size()));
 
-            return ownerUserAccountId;
+            for (PhraseTagNameView phraseTag : tagRepository.findTagNamesByPhraseIds(chunk)) {
+                tagNamesByPhraseId.computeIfAbsent(phraseTag.getPhraseId(), k -> new ArrayList<>())
+                        .add(phraseTag.getTagName().toLowerCase());
+            }
 
-        } catch (Throwable exception) {
-            log.error(exception.getMessage());
-            exception.printStackTrace();
-            throw new ExternalIdNotRetrievedException("The external ID of the user account could not be retrieved.");
         }
 
+        return tagNamesByPhraseId;
+
     }
 
-    private void populateProgressMap(Map<UUID, Map<String, ProgressDTO>> allProgress,
-                                     List<GroupedProgressView> data,
-                                     String key) {
+    /**
+     * Builds a DTO that only carries the requested fields (all of them when {@code fields} is empty).
+     * Tags are taken from {@code tagNamesByPhraseId}, never from the lazy associations of the phrase.
+     */
+    private PhraseDTO toPhraseDTO(Phrase phrase, Set<String> fields, Map<Long, List<String>> tagNamesByPhraseId) {
+
+        boolean allFields = fields == null || fields.isEmpty();
 
-        for (GroupedProgressView view : data) {
-            UUID userId = view.getOwnerUserAccountId();
-            allProgress.computeIfAbsent(userId, k -> new HashMap<>())
-                    .put(key, new ProgressDTO(view.getLearned(), view.getAdded()));
+        if (allFields) {
+            return phraseMapper.toPhraseDTO(phrase, tagNamesByPhraseId.getOrDefault(phrase.getId(), List.of()));
         }
-    }
 
-    private void setPhraseTags(Phrase phrase, PhraseDTO phraseDTO) {
+        PhraseDTO phraseDTO = new PhraseDTO();
+
+        phraseDTO.setExternalPhraseId(phrase.getExternalPhraseId());
 
-        List<PhraseTag> existingTags = new ArrayList<>(phrase.getPhraseTags());
-        for (PhraseTag pt : existingTags) {
-            phrase.removeTag(pt.getTag());
+        if (fields.contains("originalPhrase")) {
+            phraseDTO.setOriginalPhrase(phrase.getOriginalPhrase());
+        }
+        if (fields.contains("originalLanguage")) {
+            phraseDTO.setOriginalLanguage(phrase.getOriginalLanguage().getValue());
+        }
+        if (fields.contains("meaning")) {
+            phraseDTO.setMeaning(phrase.getMeaning());
+        }
+        if (fields.contains("meaningLanguage")) {
+            phraseDTO.setMeaningLanguage(phrase.getMeaningLanguage().getValue());
+        }
+        if (fields.contains("status")) {
+            phraseDTO.setStatus(phrase.getStatus().getValue());
+        }
+        if (fields.contains("notes")) {
+            phraseDTO.setNotes(phrase.getNotes());
+        }
+        if (fields.contains("phraseTags")) {
+            phraseDTO.setPhraseTags(new ArrayList<>(tagNamesByPhraseId.getOrDefault(phrase.getId(), List.of())));
         }
 
-        phraseRepository.flush();
+        return phraseDTO;
 
-        phrase.getPhraseTags().clear();
+    }
 
-        UUID ownerId = phrase.getOwnerUserAccountId();
 
-        for (String tagName : phraseDTO.getPhraseTags()) {
-            Tag tag = tagRepository.findByOwnerUserAccountIdAndTagName(ownerId, tagName.toLowerCase())
-                    .orElseGet(() -> {
-                        Tag newTag = new Tag();
-                        newTag.setTagName(tagName.toLowerCase());
-                        newTag.setOwnerUserAccountId(ownerId);
-                        return tagRepository.save(newTag);
-                    });
-            phrase.addTag(tag);
+    /**
+     * Position after the last phrase of a page in the (insert_date_time DESC, id DESC) order.
+     * Clients only see it as an opaque URL-safe token.
+     */
+    private record PageCursor(LocalDateTime insertDateTime, Long id) {
+
+        String encode() {
+            String value = insertDateTime + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf('|');
+                return new PageCursor(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+            } catch (RuntimeException exception) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
         }
 
     }
 
-    private void setPhraseDTOTags(Phrase phrase, PhraseDTO phraseDTO) {
+    /**
+     * Number of search results before the next page. Ranks are computed per request, so search pages are addressed
+     * by offset instead of by the last row.
+     */
+    private record SearchCursor(int offset) {
 
-        phraseDTO.getPhraseTags().clear();
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(("search|" + offset).getBytes(StandardCharsets.UTF_8));
+        }
 
-        for (PhraseTag phraseTag : phrase.getPhraseTags()) {
-            phraseDTO.getPhraseTags().add(phraseTag.getTag().getTagName().toLowerCase());
+        static SearchCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int offset = Integer.parseInt(value.substring(value.indexOf('|') + 1));
+                if (!value.startsWith("search|") || offset < 0) {
+                    throw new IllegalArgumentException(value);
+                }
+                return new SearchCursor(offset);
+            } catch (RuntimeException exception) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
         }
 
     }
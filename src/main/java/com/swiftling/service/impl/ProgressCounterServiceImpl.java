@@ -0,0 +1,247 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.UserProgress;
+import com.swiftling.enums.Status;
+import com.swiftling.repository.DailyProgressView;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.repository.UserProgressRepository;
+import com.swiftling.service.JobLeaseService;
+import com.swiftling.service.ProgressCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Maintains the per-owner, per-day {@code user_progress} counters that back the progress endpoints.
+ * <p>
+ * A phrase is counted in the bucket of its insert date: it always adds to {@code added} and, while its status is
+ * {@link Status#LEARNED}, to {@code learned}. The {@code record*} methods join the caller's transaction, so the
+ * counters change atomically with the phrase. They only issue bulk statements and never load counter rows into the
+ * persistence context. On PostgreSQL a bucket is created or updated by one {@code INSERT ... ON CONFLICT DO UPDATE};
+ * other databases (the embedded test database) create it empty if absent and then update it. Either way concurrent
+ * writers of a new bucket wait on its unique constraint instead of failing. {@link #rebuildAll()} recounts every
+ * owner from {@code phrases} to repair drift, and also fills the table the first time the service starts with
+ * existing phrases.
+ */
+@Slf4j
+@Service
+public class ProgressCounterServiceImpl implements ProgressCounterService {
+
+    private static final String RECONCILE_JOB = "progress-reconcile";
+    private static final String INITIALIZE_JOB = "progress-initialize";
+
+    private final UserProgressRepository userProgressRepository;
+    private final PhraseRepository phraseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLeaseService jobLeaseService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgreSql;
+
+    public ProgressCounterServiceImpl(UserProgressRepository userProgressRepository, PhraseRepository phraseRepository,
+                                      TransactionTemplate transactionTemplate, JobLeaseService jobLeaseService,
+                                      JdbcTemplate jdbcTemplate) {
+        this.userProgressRepository = userProgressRepository;
+        this.phraseRepository = phraseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLeaseService = jobLeaseService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(Phrase phrase) {
+        increment(phrase, learnedCount(phrase.getStatus()), 1);
+    }
+
+    /**
+     * Counts {@code addedCount} new phrases that are not learned yet, e.g. a batch of imported ones.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(UUID ownerUserAccountId, LocalDate bucketDate, int addedCount) {
+        increment(ownerUserAccountId, bucketDate, 0, addedCount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Phrase phrase) {
+        increment(phrase, -learnedCount(phrase.getStatus()), -1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Map<Phrase, Status> previousStatuses) {
+
+        Map<UUID, Map<LocalDate, Integer>> learnedDeltas = new HashMap<>();
+
+        previousStatuses.forEach((phrase, previousStatus) -> {
+            int learnedDelta = learnedCount(phrase.getStatus()) - learnedCount(previousStatus);
+            if (learnedDelta != 0) {
+                learnedDeltas.computeIfAbsent(phrase.getOwnerUserAccountId(), k -> new HashMap<>())
+                        .merge(phrase.getInsertDateTime().toLocalDate(), learnedDelta, Integer::sum);
+            }
+        });
+
+        learnedDeltas.forEach((ownerUserAccountId, deltasByDate) -> deltasByDate.forEach((bucketDate, learnedDelta) -> {
+            if (learnedDelta != 0) {
+                increment(ownerUserAccountId, bucketDate, learnedDelta, 0);
+            }
+        }));
+
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteAllByUser(UUID ownerUserAccountId) {
+        userProgressRepository.deleteAllByOwnerUserAccountId(ownerUserAccountId);
+    }
+
+    /**
+     * The owner's buckets are locked before the phrases are counted. A writer whose change committed earlier is part
+     * of the count, and a later one waits for the lock and then increments the rebuilt values, so no change is lost.
+     * A bucket a concurrent writer creates in the meantime makes the insert of the same bucket fail, and the owner
+     * is rebuilt again by the next run.
+     */
+    @Override
+    @Transactional
+    public void rebuild(UUID ownerUserAccountId) {
+
+        Map<LocalDate, UserProgress> storedBuckets = new HashMap<>();
+
+        for (UserProgress userProgress : userProgressRepository.findAllForUpdateByOwnerUserAccountId(ownerUserAccountId)) {
+            storedBuckets.put(userProgress.getBucketDate(), userProgress);
+        }
+
+        List<UserProgress> bucketsToSave = new ArrayList<>();
+        int driftedBuckets = 0;
+
+        for (DailyProgressView dailyProgress : phraseRepository.getDailyProgress(ownerUserAccountId)) {
+
+            UserProgress userProgress = storedBuckets.remove(dailyProgress.getBucketDate());
+
+            if (userProgress == null) {
+                userProgress = new UserProgress(ownerUserAccountId, dailyProgress.getBucketDate(), 0, 0);
+            }
+
+            if (!userProgress.getLearned().equals(dailyProgress.getLearned()) || !userProgress.getAdded().equals(dailyProgress.getAdded())) {
+                userProgress.setLearned(dailyProgress.getLearned());
+                userProgress.setAdded(dailyProgress.getAdded());
+                bucketsToSave.add(userProgress);
+                driftedBuckets++;
+            }
+
+        }
+
+        driftedBuckets += storedBuckets.size();
+
+        userProgressRepository.saveAll(bucketsToSave);
+        userProgressRepository.deleteAll(storedBuckets.values());
+
+        if (driftedBuckets > 0) {
+            log.info("Repaired {} progress bucket(s) for user {}", driftedBuckets, ownerUserAccountId);
+        }
+
+    }
+
+    /**
+     * Scheduled task to reconcile the progress counters with the phrases daily at 3:30 AM.
+     * Only the replica that claims the run's lease rebuilds, the others skip it.
+     */
+    @Scheduled(cron = "${progress.reconcile.cron:0 30 3 * * ?}")
+    public void reconcile() {
+
+        LocalDate runDate = LocalDate.now();
+
+        if (!jobLeaseService.tryAcquire(RECONCILE_JOB, runDate, 0)) {
+            log.info("Progress counters for {} are reconciled by another instance", runDate);
+            return;
+        }
+
+        rebuildAll();
+
+        jobLeaseService.complete(RECONCILE_JOB, runDate, 0);
+        jobLeaseService.purgeOldRuns(RECONCILE_JOB, runDate);
+
+    }
+
+    /**
+     * Every owner is rebuilt in its own transaction, so one failure does not roll back the others.
+     */
+    @Override
+    public void rebuildAll() {
+
+        log.info("Reconciling progress counters for all users");
+
+        Set<UUID> ownerUserAccountIds = new HashSet<>(phraseRepository.findAllOwnerUserAccountIds());
+        ownerUserAccountIds.addAll(userProgressRepository.findAllOwnerUserAccountIds());
+
+        int failedOwners = 0;
+
+        for (UUID ownerUserAccountId : ownerUserAccountIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebuild(ownerUserAccountId));
+            } catch (Exception e) {
+                failedOwners++;
+                log.error("Error reconciling progress counters for user {}", ownerUserAccountId, e);
+            }
+        }
+
+        log.info("Reconciled progress counters for {} users ({} failed)", ownerUserAccountIds.size(), failedOwners);
+
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        LocalDate runDate = LocalDate.now();
+        if (userProgressRepository.count() == 0 && phraseRepository.count() > 0
+                && jobLeaseService.tryAcquire(INITIALIZE_JOB, runDate, 0)) {
+            log.info("Progress counters are empty, building them from the existing phrases");
+            rebuildAll();
+            jobLeaseService.complete(INITIALIZE_JOB, runDate, 0);
+        }
+    }
+
+    private void increment(Phrase phrase, int learnedDelta, int addedDelta) {
+        increment(phrase.getOwnerUserAccountId(), phrase.getInsertDateTime().toLocalDate(), learnedDelta, addedDelta);
+    }
+
+    private void increment(UUID ownerUserAccountId, LocalDate bucketDate, int learnedDelta, int addedDelta) {
+
+        if (isPostgreSql()) {
+            userProgressRepository.upsert(ownerUserAccountId, bucketDate, learnedDelta, addedDelta);
+            return;
+        }
+
+        userProgressRepository.insertIfAbsent(ownerUserAccountId, bucketDate);
+        userProgressRepository.increment(ownerUserAccountId, bucketDate, learnedDelta, addedDelta);
+
+    }
+
+    private boolean isPostgreSql() {
+
+        if (postgreSql == null) {
+            postgreSql = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+
+        return postgreSql;
+
+    }
+
+    private static int learnedCount(Status status) {
+        return status == Status.LEARNED ? 1 : 0;
+    }
+
+}
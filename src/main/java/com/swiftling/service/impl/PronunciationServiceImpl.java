@@ -0,0 +1,336 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.PronunciationProperties;
+import com.swiftling.dto.PronunciationDTO;
+import com.swiftling.dto.SpeechRequestDTO;
+import com.swiftling.enums.Language;
+import com.swiftling.service.PronunciationService;
+import com.swiftling.service.SpeechSynthesizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves pronunciation audio from a content-addressed cache and only calls the {@link SpeechSynthesizer} on a miss.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of (text, language code, voice, encoding). The first tier is an in-heap
+ * LRU bounded by total audio bytes, the second tier is a directory of audio files named by the digest, also bounded
+ * by total bytes. Concurrent misses for the same key share one synthesis.
+ */
+@Slf4j
+@Service
+public class PronunciationServiceImpl implements PronunciationService {
+
+    private final SpeechSynthesizer speechSynthesizer;
+    private final PronunciationProperties pronunciationProperties;
+
+    private final LinkedHashMap<String, byte[]> memoryCache = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryCacheBytes;
+
+    private final LinkedHashMap<Path, Long> diskCache = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskCacheBytes;
+    private boolean diskCacheLoaded;
+
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    public PronunciationServiceImpl(SpeechSynthesizer speechSynthesizer, PronunciationProperties pronunciationProperties) {
+        this.speechSynthesizer = speechSynthesizer;
+        this.pronunciationProperties = pronunciationProperties;
+    }
+
+    @Override
+    public PronunciationDTO getPronunciation(String text, Language language) {
+
+        SpeechRequestDTO speechRequest = speechRequest(text, language);
+
+        String cacheKey = cacheKey(speechRequest);
+
+        byte[] audio = getFromMemory(cacheKey);
+
+        if (audio != null) {
+            return new PronunciationDTO(audio, contentType(speechRequest), cacheKey);
+        }
+
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> pending = inFlight.putIfAbsent(cacheKey, load);
+
+        if (pending != null) {
+            return new PronunciationDTO(join(pending), contentType(speechRequest), cacheKey);
+        }
+
+        try {
+            audio = load(cacheKey, speechRequest);
+            load.complete(audio);
+        } catch (RuntimeException exception) {
+            load.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(cacheKey, load);
+        }
+
+        return new PronunciationDTO(audio, contentType(speechRequest), cacheKey);
+
+    }
+
+    /**
+     * The ETag of the audio {@link #getPronunciation} would return, i.e. its cache key, without loading the audio.
+     */
+    @Override
+    public String getETag(String text, Language language) {
+        return cacheKey(speechRequest(text, language));
+    }
+
+    private SpeechRequestDTO speechRequest(String text, Language language) {
+        return new SpeechRequestDTO(text, language.getCode(),
+                pronunciationProperties.getVoiceGender(), pronunciationProperties.getAudioEncoding());
+    }
+
+    private byte[] load(String cacheKey, SpeechRequestDTO speechRequest) {
+
+        byte[] audio = readFromDisk(cacheKey, speechRequest);
+
+        if (audio == null) {
+            audio = speechSynthesizer.synthesize(speechRequest);
+            writeToDisk(cacheKey, speechRequest, audio);
+        }
+
+        putInMemory(cacheKey, audio);
+
+        return audio;
+
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private synchronized byte[] getFromMemory(String cacheKey) {
+        return memoryCache.get(cacheKey);
+    }
+
+    private synchronized void putInMemory(String cacheKey, byte[] audio) {
+
+        long maxBytes = pronunciationProperties.getMemoryCacheMaxBytes();
+
+        if (audio.length > maxBytes) {
+            return;
+        }
+
+        byte[] previous = memoryCache.put(cacheKey, audio);
+
+        if (previous != null) {
+            memoryCacheBytes -= previous.length;
+        }
+
+        memoryCacheBytes += audio.length;
+
+        Iterator<Map.Entry<String, byte[]>> iterator = memoryCache.entrySet().iterator();
+
+        while (memoryCacheBytes > maxBytes && iterator.hasNext()) {
+            memoryCacheBytes -= iterator.next().getValue().length;
+            iterator.remove();
+        }
+
+    }
+
+    private byte[] readFromDisk(String cacheKey, SpeechRequestDTO speechRequest) {
+
+        if (!pronunciationProperties.isDiskCacheEnabled()) {
+            return null;
+        }
+
+        Path audioFile = diskCachePath(cacheKey, speechRequest);
+
+        if (!touchOnDisk(audioFile)) {
+            return null;
+        }
+
+        try {
+            return Files.readAllBytes(audioFile);
+        } catch (IOException exception) {
+            log.warn("The cached pronunciation could not be read: {}", audioFile, exception);
+            return null;
+        }
+
+    }
+
+    private void writeToDisk(String cacheKey, SpeechRequestDTO speechRequest, byte[] audio) {
+
+        if (!pronunciationProperties.isDiskCacheEnabled()) {
+            return;
+        }
+
+        Path audioFile = diskCachePath(cacheKey, speechRequest);
+
+        try {
+            Files.createDirectories(audioFile.getParent());
+            Path tempFile = Files.createTempFile(audioFile.getParent(), cacheKey, ".tmp");
+            Files.write(tempFile, audio);
+            Files.move(tempFile, audioFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            log.warn("The pronunciation could not be cached on disk: {}", audioFile, exception);
+            return;
+        }
+
+        putOnDisk(audioFile, audio.length);
+
+    }
+
+    /**
+     * Marks the file as recently used, also across restarts through its modification time.
+     */
+    private synchronized boolean touchOnDisk(Path audioFile) {
+
+        loadDiskCache();
+
+        try {
+            Files.setLastModifiedTime(audioFile, FileTime.from(Instant.now()));
+        } catch (IOException exception) {
+            Long size = diskCache.remove(audioFile);
+            if (size != null) {
+                diskCacheBytes -= size;
+            }
+            return false;
+        }
+
+        if (diskCache.get(audioFile) == null) {
+            putOnDisk(audioFile, audioFile.toFile().length());
+        }
+
+        return true;
+
+    }
+
+    private synchronized void putOnDisk(Path audioFile, long size) {
+
+        loadDiskCache();
+
+        Long previousSize = diskCache.put(audioFile, size);
+
+        if (previousSize != null) {
+            diskCacheBytes -= previousSize;
+        }
+
+        diskCacheBytes += size;
+
+        Iterator<Map.Entry<Path, Long>> iterator = diskCache.entrySet().iterator();
+
+        while (diskCacheBytes > pronunciationProperties.getDiskCacheMaxBytes() && iterator.hasNext()) {
+
+            Map.Entry<Path, Long> eldest = iterator.next();
+
+            try {
+                Files.deleteIfExists(eldest.getKey());
+            } catch (IOException exception) {
+                log.warn("The cached pronunciation could not be deleted: {}", eldest.getKey(), exception);
+            }
+
+            diskCacheBytes -= eldest.getValue();
+            iterator.remove();
+
+        }
+
+    }
+
+    /**
+     * Indexes the files left by a previous run, least recently used first.
+     */
+    private void loadDiskCache() {
+
+        if (diskCacheLoaded) {
+            return;
+        }
+
+        diskCacheLoaded = true;
+
+        Path directory = Paths.get(pronunciationProperties.getDiskCacheDirectory());
+
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .map(file -> {
+                        try {
+                            return Map.entry(file, Files.readAttributes(file, BasicFileAttributes.class));
+                        } catch (IOException exception) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                    .forEach(entry -> {
+                        diskCache.put(entry.getKey(), entry.getValue().size());
+                        diskCacheBytes += entry.getValue().size();
+                    });
+        } catch (IOException exception) {
+            log.warn("The pronunciation cache directory could not be read: {}", directory, exception);
+        }
+
+    }
+
+    private Path diskCachePath(String cacheKey, SpeechRequestDTO speechRequest) {
+        return Paths.get(pronunciationProperties.getDiskCacheDirectory(),
+                cacheKey + "." + speechRequest.getAudioEncoding().toLowerCase());
+    }
+
+    private static String contentType(SpeechRequestDTO speechRequest) {
+        return switch (speechRequest.getAudioEncoding()) {
+            case "MP3" -> "audio/mpeg";
+            case "OGG_OPUS" -> "audio/ogg";
+            case "LINEAR16" -> "audio/wav";
+            case "MULAW", "ALAW" -> "audio/basic";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static String cacheKey(SpeechRequestDTO speechRequest) {
+
+        try {
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (String part : new String[]{speechRequest.getText(), speechRequest.getLanguageCode(),
+                    speechRequest.getVoiceGender(), speechRequest.getAudioEncoding()}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+
+    }
+
+}
@@ -0,0 +1,374 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.QuizProperties;
+import com.swiftling.entity.Phrase;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.repository.QuizCandidateView;
+import com.swiftling.service.QuizSamplingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Draws random quiz phrases from a per-user snapshot of the few columns the filters and the weights need, so a
+ * sample never sorts all phrases of the user by {@code random()} in the database.
+ * <p>
+ * A phrase is drawn with weight {@code 1 / (1 + consecutiveCorrectAnswerAmount)} and without replacement, by one pass
+ * of weighted reservoir sampling with exponential jumps (Efraimidis-Spirakis A-ExpJ) over the phrases that match the
+ * filters. A tag filter only visits the phrases of that tag.
+ * <p>
+ * Snapshots are loaded with one streamed query, live in an LRU map bounded by the total number of cached phrases
+ * ({@link QuizProperties#getSamplingCacheMaxPhrases()}) and expire after {@link QuizProperties#getSamplingCacheTtl()}.
+ * Phrase changes evict the owner's snapshot once their transaction has committed, while quiz answers patch the
+ * answered phrases in place, so a quiz session keeps sampling from memory. As in {@link TagDictionaryServiceImpl},
+ * a load that overlapped with any eviction or patch is used but not cached.
+ */
+@Service
+public class QuizSamplingServiceImpl implements QuizSamplingService {
+
+    private final PhraseRepository phraseRepository;
+    private final QuizProperties quizProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LinkedHashMap<UUID, Snapshot> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong evictions = new AtomicLong();
+    private long cachedPhrases;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public QuizSamplingServiceImpl(PhraseRepository phraseRepository, QuizProperties quizProperties,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.phraseRepository = phraseRepository;
+        this.quizProperties = quizProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.hits = Counter.builder("swiftling.quiz.sampling.cache")
+                .tag("result", "hit")
+                .description("Random quiz samples drawn from a cached snapshot")
+                .register(meterRegistry);
+        this.misses = Counter.builder("swiftling.quiz.sampling.cache")
+                .tag("result", "miss")
+                .description("Random quiz samples that loaded the snapshot from the database")
+                .register(meterRegistry);
+        Gauge.builder("swiftling.quiz.sampling.cache.phrases", this, QuizSamplingServiceImpl::getCachedPhrases)
+                .description("Phrases held by the cached random quiz snapshots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the IDs of at most {@code size} phrases of the owner, the most likely ones first. {@code null}
+     * filters are not applied.
+     */
+    @Override
+    public List<Long> sample(UUID ownerUserAccountId, Status status, Language originalLanguage, String tagName, int size) {
+
+        Snapshot snapshot = getSnapshot(ownerUserAccountId);
+
+        int[] positions = null;
+
+        if (tagName != null) {
+            positions = snapshot.positionsByTagName().get(tagName.toLowerCase());
+            if (positions == null) {
+                return List.of();
+            }
+        }
+
+        int candidateCount = positions != null ? positions.length : snapshot.phraseIds().length;
+
+        PriorityQueue<Draw> drawn = new PriorityQueue<>(size + 1, Comparator.comparingDouble(Draw::key));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Keys are log(u ^ (1 / weight)), and keeping the largest ones draws without replacement in proportion to the
+        // weights. Once the reservoir is full, the weight to pass before the next replacement is drawn up front
+        // (exponential jumps), so most phrases only add up their weight instead of drawing a key.
+        double passedWeight = 0;
+        double weightToPass = 0;
+
+        for (int i = 0; i < candidateCount; i++) {
+
+            int position = positions != null ? positions[i] : i;
+
+            if ((status != null && snapshot.statuses()[position] != status)
+                    || (originalLanguage != null && snapshot.originalLanguages()[position] != originalLanguage)) {
+                continue;
+            }
+
+            double weight = 1.0 / (1 + snapshot.consecutiveCorrectAnswerAmounts()[position]);
+
+            if (drawn.size() < size) {
+                drawn.add(new Draw(Math.log(random.nextDouble()) / weight, position));
+                weightToPass = Math.log(random.nextDouble()) / drawn.peek().key();
+                continue;
+            }
+
+            passedWeight += weight;
+
+            if (passedWeight < weightToPass) {
+                continue;
+            }
+
+            // The key of the replacing phrase is drawn above the smallest kept key.
+            double threshold = Math.exp(drawn.peek().key() * weight);
+
+            drawn.poll();
+            drawn.add(new Draw(Math.log(threshold + (1 - threshold) * random.nextDouble()) / weight, position));
+
+            passedWeight = 0;
+            weightToPass = Math.log(random.nextDouble()) / drawn.peek().key();
+
+        }
+
+        Long[] phraseIds = new Long[drawn.size()];
+
+        for (int i = phraseIds.length - 1; i >= 0; i--) {
+            phraseIds[i] = snapshot.phraseIds()[drawn.poll().position()];
+        }
+
+        return Arrays.asList(phraseIds);
+
+    }
+
+    /**
+     * Copies the new status and consecutive correct answer amount of the answered phrases into the cached snapshot
+     * once the transaction has committed.
+     */
+    @Override
+    public void recordAnswers(UUID ownerUserAccountId, Collection<Phrase> answeredPhrases) {
+
+        List<Answer> answers = answeredPhrases.stream()
+                .map(phrase -> new Answer(phrase.getId(), phrase.getStatus(), phrase.getConsecutiveCorrectAnswerAmount()))
+                .toList();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            patch(ownerUserAccountId, answers);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    patch(ownerUserAccountId, answers);
+                }
+            }
+        });
+
+    }
+
+    @Override
+    public void evict(UUID ownerUserAccountId) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(ownerUserAccountId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                remove(ownerUserAccountId);
+            }
+        });
+
+    }
+
+    private Snapshot getSnapshot(UUID ownerUserAccountId) {
+
+        Instant now = Instant.now();
+
+        Snapshot snapshot = get(ownerUserAccountId);
+
+        if (snapshot != null && snapshot.expiresAt().isAfter(now)) {
+            hits.increment();
+            return snapshot;
+        }
+
+        misses.increment();
+
+        long evictionsBeforeLoad = evictions.get();
+
+        snapshot = transactionTemplate.execute(transactionStatus -> {
+            try (Stream<QuizCandidateView> rows = phraseRepository.streamQuizCandidates(ownerUserAccountId)) {
+                SnapshotBuilder builder = new SnapshotBuilder();
+                rows.forEach(builder::add);
+                return builder.build(now.plus(quizProperties.getSamplingCacheTtl()));
+            }
+        });
+
+        put(ownerUserAccountId, snapshot, evictionsBeforeLoad);
+
+        return snapshot;
+
+    }
+
+    private synchronized Snapshot get(UUID ownerUserAccountId) {
+        return cache.get(ownerUserAccountId);
+    }
+
+    private synchronized void put(UUID ownerUserAccountId, Snapshot snapshot, long evictionsBeforeLoad) {
+
+        if (evictions.get() != evictionsBeforeLoad) {
+            return;
+        }
+
+        Snapshot replaced = cache.put(ownerUserAccountId, snapshot);
+
+        cachedPhrases += snapshot.phraseIds().length - (replaced != null ? replaced.phraseIds().length : 0);
+
+        Iterator<Snapshot> iterator = cache.values().iterator();
+
+        while (cachedPhrases > quizProperties.getSamplingCacheMaxPhrases() && iterator.hasNext()) {
+            cachedPhrases -= iterator.next().phraseIds().length;
+            iterator.remove();
+        }
+
+    }
+
+    private synchronized void remove(UUID ownerUserAccountId) {
+
+        evictions.incrementAndGet();
+
+        Snapshot removed = cache.remove(ownerUserAccountId);
+
+        if (removed != null) {
+            cachedPhrases -= removed.phraseIds().length;
+        }
+
+    }
+
+    private synchronized void patch(UUID ownerUserAccountId, List<Answer> answers) {
+
+        evictions.incrementAndGet();
+
+        Snapshot snapshot = cache.get(ownerUserAccountId);
+
+        if (snapshot == null) {
+            return;
+        }
+
+        for (Answer answer : answers) {
+
+            int position = Arrays.binarySearch(snapshot.phraseIds(), answer.phraseId());
+
+            if (position >= 0) {
+                snapshot.statuses()[position] = answer.status();
+                snapshot.consecutiveCorrectAnswerAmounts()[position] = answer.consecutiveCorrectAnswerAmount();
+            }
+
+        }
+
+    }
+
+    private synchronized long getCachedPhrases() {
+        return cachedPhrases;
+    }
+
+    /**
+     * Column arrays indexed by position, ordered by phrase ID. Patched answers may be read by a concurrent sample
+     * while they are written, which at worst draws with the previous weight.
+     */
+    private record Snapshot(long[] phraseIds, Status[] statuses, Language[] originalLanguages,
+                            int[] consecutiveCorrectAnswerAmounts, Map<String, int[]> positionsByTagName,
+                            Instant expiresAt) {
+    }
+
+    private record Draw(double key, int position) {
+    }
+
+    private record Answer(Long phraseId, Status status, int consecutiveCorrectAnswerAmount) {
+    }
+
+    /**
+     * Collects the rows of {@link PhraseRepository#streamQuizCandidates(UUID)}, one row per phrase and tag, ordered
+     * by phrase ID.
+     */
+    private static final class SnapshotBuilder {
+
+        private long[] phraseIds = new long[1024];
+        private Status[] statuses = new Status[1024];
+        private Language[] originalLanguages = new Language[1024];
+        private int[] consecutiveCorrectAnswerAmounts = new int[1024];
+        private final Map<String, Positions> positionsByTagName = new HashMap<>();
+        private int size;
+
+        void add(QuizCandidateView row) {
+
+            if (size == 0 || phraseIds[size - 1] != row.getPhraseId()) {
+
+                if (size == phraseIds.length) {
+                    int capacity = size * 2;
+                    phraseIds = Arrays.copyOf(phraseIds, capacity);
+                    statuses = Arrays.copyOf(statuses, capacity);
+                    originalLanguages = Arrays.copyOf(originalLanguages, capacity);
+                    consecutiveCorrectAnswerAmounts = Arrays.copyOf(consecutiveCorrectAnswerAmounts, capacity);
+                }
+
+                phraseIds[size] = row.getPhraseId();
+                statuses[size] = row.getStatus();
+                originalLanguages[size] = row.getOriginalLanguage();
+                consecutiveCorrectAnswerAmounts[size] = row.getConsecutiveCorrectAnswerAmount();
+                size++;
+
+            }
+
+            if (row.getTagName() != null) {
+                positionsByTagName.computeIfAbsent(row.getTagName().toLowerCase(), tagName -> new Positions()).add(size - 1);
+            }
+
+        }
+
+        Snapshot build(Instant expiresAt) {
+
+            Map<String, int[]> tagPositions = HashMap.newHashMap(positionsByTagName.size());
+
+            positionsByTagName.forEach((tagName, positions) -> tagPositions.put(tagName, positions.toArray()));
+
+            return new Snapshot(Arrays.copyOf(phraseIds, size), Arrays.copyOf(statuses, size),
+                    Arrays.copyOf(originalLanguages, size), Arrays.copyOf(consecutiveCorrectAnswerAmounts, size),
+                    tagPositions, expiresAt);
+
+        }
+
+    }
+
+    private static final class Positions {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int position) {
+
+            // Tags that only differ in case are linked to the same phrase on consecutive rows.
+            if (size > 0 && values[size - 1] == position) {
+                return;
+            }
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = position;
+
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.QuizProperties;
+import com.swiftling.entity.Phrase;
+import com.swiftling.service.SpacedRepetitionService;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * SM-2 style scheduling. A correct answer moves the phrase 1 day, then 6 days, then the previous interval times the
+ * ease factor ahead, and raises the ease. A wrong answer lowers the ease, restarts the interval and asks the phrase
+ * again after {@link QuizProperties#getRelearnDelay()}.
+ */
+@Service
+public class SpacedRepetitionServiceImpl implements SpacedRepetitionService {
+
+    private static final double INITIAL_EASE_FACTOR = 2.5;
+    private static final double MIN_EASE_FACTOR = 1.3;
+    private static final double EASE_FACTOR_STEP = 0.1;
+    private static final double EASE_FACTOR_PENALTY = 0.2;
+
+    private final QuizProperties quizProperties;
+
+    public SpacedRepetitionServiceImpl(QuizProperties quizProperties) {
+        this.quizProperties = quizProperties;
+    }
+
+    @Override
+    public void resetSchedule(Phrase phrase, LocalDateTime now) {
+        phrase.setDueAt(now);
+        phrase.setReviewIntervalDays(0);
+        phrase.setEaseFactor(INITIAL_EASE_FACTOR);
+    }
+
+    @Override
+    public void recordAnswer(Phrase phrase, boolean answeredCorrectly, LocalDateTime answeredAt) {
+
+        if (!answeredCorrectly) {
+            phrase.setEaseFactor(Math.max(MIN_EASE_FACTOR, phrase.getEaseFactor() - EASE_FACTOR_PENALTY));
+            phrase.setReviewIntervalDays(0);
+            phrase.setDueAt(answeredAt.plus(quizProperties.getRelearnDelay()));
+            return;
+        }
+
+        int interval = phrase.getReviewIntervalDays();
+
+        int nextInterval = switch (interval) {
+            case 0 -> 1;
+            case 1 -> 6;
+            default -> (int) Math.round(interval * phrase.getEaseFactor());
+        };
+
+        nextInterval = Math.min(nextInterval, quizProperties.getMaxIntervalDays());
+
+        phrase.setEaseFactor(phrase.getEaseFactor() + EASE_FACTOR_STEP);
+        phrase.setReviewIntervalDays(nextInterval);
+        phrase.setDueAt(answeredAt.plusDays(nextInterval));
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.TagCacheProperties;
+import com.swiftling.enums.DefaultTag;
+import com.swiftling.repository.TagRepository;
+import com.swiftling.service.TagDictionaryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Caches the tags offered to a user: the default tags plus the tags of the user's phrases.
+ * <p>
+ * Entries live in an LRU map bounded by {@link TagCacheProperties#getMaxSize()} and expire after
+ * {@link TagCacheProperties#getTtl()}. Phrase and tag changes evict the owner's entry once their transaction has
+ * committed. A load that overlapped with any eviction is returned but not cached, so a value read before a commit
+ * can not be cached after it.
+ */
+@Service
+public class TagDictionaryServiceImpl implements TagDictionaryService {
+
+    private static final SortedSet<String> DEFAULT_TAGS = Collections.unmodifiableSortedSet(Stream.of(DefaultTag.values())
+            .map(DefaultTag::getValue)
+            .collect(TreeSet::new, TreeSet::add, TreeSet::addAll));
+
+    private final TagRepository tagRepository;
+    private final TagCacheProperties tagCacheProperties;
+
+    private final LinkedHashMap<UUID, CachedTags> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TagDictionaryServiceImpl(TagRepository tagRepository, TagCacheProperties tagCacheProperties,
+                                    MeterRegistry meterRegistry) {
+        this.tagRepository = tagRepository;
+        this.tagCacheProperties = tagCacheProperties;
+        this.hits = Counter.builder("swiftling.tags.cache")
+                .tag("result", "hit")
+                .description("Tag dictionary requests served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("swiftling.tags.cache")
+                .tag("result", "miss")
+                .description("Tag dictionary requests loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("swiftling.tags.cache.size", this, TagDictionaryServiceImpl::size)
+                .description("Users whose tag dictionary is cached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SortedSet<String> getTags(UUID ownerUserAccountId) {
+
+        Instant now = Instant.now();
+
+        CachedTags cachedTags = get(ownerUserAccountId);
+
+        if (cachedTags != null && cachedTags.expiresAt().isAfter(now)) {
+            hits.increment();
+            return cachedTags.tags();
+        }
+
+        misses.increment();
+
+        long evictionsBeforeLoad = evictions.get();
+
+        SortedSet<String> tags = new TreeSet<>(DEFAULT_TAGS);
+        tags.addAll(tagRepository.findTagNamesByPhraseOwner(ownerUserAccountId));
+        tags = Collections.unmodifiableSortedSet(tags);
+
+        put(ownerUserAccountId, new CachedTags(tags, now.plus(tagCacheProperties.getTtl())), evictionsBeforeLoad);
+
+        return tags;
+
+    }
+
+    @Override
+    public void evict(UUID ownerUserAccountId) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(ownerUserAccountId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                remove(ownerUserAccountId);
+            }
+        });
+
+    }
+
+    private synchronized CachedTags get(UUID ownerUserAccountId) {
+        return cache.get(ownerUserAccountId);
+    }
+
+    private synchronized void put(UUID ownerUserAccountId, CachedTags cachedTags, long evictionsBeforeLoad) {
+
+        if (evictions.get() != evictionsBeforeLoad) {
+            return;
+        }
+
+        cache.put(ownerUserAccountId, cachedTags);
+
+        Iterator<UUID> iterator = cache.keySet().iterator();
+
+        while (cache.size() > tagCacheProperties.getMaxSize() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+    }
+
+    private synchronized void remove(UUID ownerUserAccountId) {
+        evictions.incrementAndGet();
+        cache.remove(ownerUserAccountId);
+    }
+
+    private synchronized int size() {
+        return cache.size();
+    }
+
+    private record CachedTags(SortedSet<String> tags, Instant expiresAt) {
+    }
+
+}
@@ -39,6 +39,13 @@ public class SwaggerExamples {
             "  }\n" +
             "}";
 
+    public static final String PHRASE_IMPORT_CSV_REQUEST_EXAMPLE = "originalPhrase,originalLanguage,meaning,meaningLanguage,phraseTags,notes\n" +
+            "Bonjour,fr,Hello,en,greeting;basic,Common polite greeting in French.\n" +
+            "Merci,fr,Thank you,en,basic,\n";
+
+    public static final String PHRASE_IMPORT_NDJSON_REQUEST_EXAMPLE = "{\"originalPhrase\": \"Bonjour\", \"originalLanguage\": \"fr\", \"meaning\": \"Hello\", \"meaningLanguage\": \"en\", \"phraseTags\": [\"greeting\", \"basic\"]}\n" +
+            "{\"originalPhrase\": \"Merci\", \"originalLanguage\": \"fr\", \"meaning\": \"Thank you\", \"meaningLanguage\": \"en\"}\n";
+
     public static final String PHRASE_CREATE_RESPONSE_EXAMPLE = "{\n" +
             "  \"success\": true,\n" +
             "  \"statusCode\": \"CREATED\",\n" +
@@ -80,7 +87,51 @@ public class SwaggerExamples {
     public static final String PHRASE_STATUS_UPDATE_RESPONSE_EXAMPLE = "{\n" +
             "  \"success\": true,\n" +
             "  \"statusCode\": \"OK\",\n" +
-            "  \"message\": \"The statuses of the phrases have been updated successfully.\"\n" +
+            "  \"message\": \"The statuses of the phrases have been updated successfully.\",\n" +
+            "  \"data\": [\n" +
+            "    {\n" +
+            "      \"externalPhraseId\": \"550e8400-e29b-41d4-a716-446655440000\",\n" +
+            "      \"outcome\": \"Updated\",\n" +
+            "      \"status\": \"Learned\",\n" +
+            "      \"consecutiveCorrectAnswerAmount\": 10\n" +
+            "    },\n" +
+            "    {\n" +
+            "      \"externalPhraseId\": \"550e8400-e29b-41d4-a716-446655440001\",\n" +
+            "      \"outcome\": \"Not Found\"\n" +
+            "    }\n" +
+            "  ]\n" +
+            "}";
+
+    public static final String PHRASE_IMPORT_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": true,\n" +
+            "  \"statusCode\": \"OK\",\n" +
+            "  \"message\": \"The phrases have been imported.\",\n" +
+            "  \"data\": {\n" +
+            "    \"importedCount\": 1,\n" +
+            "    \"duplicateCount\": 1,\n" +
+            "    \"invalidCount\": 1,\n" +
+            "    \"failedCount\": 0,\n" +
+            "    \"rows\": [\n" +
+            "      {\n" +
+            "        \"row\": 1,\n" +
+            "        \"outcome\": \"Imported\",\n" +
+            "        \"externalPhraseId\": \"550e8400-e29b-41d4-a716-446655440000\",\n" +
+            "        \"originalPhrase\": \"Bonjour\"\n" +
+            "      },\n" +
+            "      {\n" +
+            "        \"row\": 2,\n" +
+            "        \"outcome\": \"Duplicate\",\n" +
+            "        \"originalPhrase\": \"Merci\",\n" +
+            "        \"message\": \"The given phrase already exists: Merci\"\n" +
+            "      },\n" +
+            "      {\n" +
+            "        \"row\": 3,\n" +
+            "        \"outcome\": \"Invalid\",\n" +
+            "        \"originalPhrase\": \"Salut\",\n" +
+            "        \"message\": \"Meaning is a required field.\"\n" +
+            "      }\n" +
+            "    ]\n" +
+            "  }\n" +
             "}";
 
     public static final String PHRASE_GET_ALL_RESPONSE_EXAMPLE = "{\n" +
@@ -384,6 +435,67 @@ public class SwaggerExamples {
             "  ]\n" +
             "}";
 
+    public static final String QUIZ_NEXT_BATCH_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": true,\n" +
+            "  \"statusCode\": \"OK\",\n" +
+            "  \"message\": \"The next quiz batch has been retrieved successfully.\",\n" +
+            "  \"data\": [\n" +
+            "    {\n" +
+            "      \"externalPhraseId\": \"550e8400-e29b-41d4-a716-446655440000\",\n" +
+            "      \"originalPhrase\": \"Bonjour\",\n" +
+            "      \"originalLanguage\": \"French\",\n" +
+            "      \"meaning\": \"Hello\",\n" +
+            "      \"meaningLanguage\": \"English\",\n" +
+            "      \"phraseTags\": [\n" +
+            "        \"greeting\"\n" +
+            "      ],\n" +
+            "      \"status\": \"In Progress\"\n" +
+            "    }\n" +
+            "  ]\n" +
+            "}";
+
+    public static final String QUIZ_RANDOM_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": true,\n" +
+            "  \"statusCode\": \"OK\",\n" +
+            "  \"message\": \"The random quiz has been retrieved successfully.\",\n" +
+            "  \"data\": [\n" +
+            "    {\n" +
+            "      \"externalPhraseId\": \"550e8400-e29b-41d4-a716-446655440000\",\n" +
+            "      \"originalPhrase\": \"Bonjour\",\n" +
+            "      \"originalLanguage\": \"French\",\n" +
+            "      \"meaning\": \"Hello\",\n" +
+            "      \"meaningLanguage\": \"English\",\n" +
+            "      \"phraseTags\": [\n" +
+            "        \"greeting\"\n" +
+            "      ],\n" +
+            "      \"status\": \"In Progress\"\n" +
+            "    }\n" +
+            "  ]\n" +
+            "}";
+
+    public static final String PHRASE_SEARCH_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": true,\n" +
+            "  \"statusCode\": \"OK\",\n" +
+            "  \"message\": \"The search results have been retrieved successfully.\",\n" +
+            "  \"data\": {\n" +
+            "    \"phrases\": [\n" +
+            "      {\n" +
+            "        \"externalPhraseId\": \"550e8400-e29b-41d4-a716-446655440000\",\n" +
+            "        \"originalPhrase\": \"Bonjour\",\n" +
+            "        \"originalLanguage\": \"French\",\n" +
+            "        \"meaning\": \"Hello\",\n" +
+            "        \"meaningLanguage\": \"English\",\n" +
+            "        \"phraseTags\": [\n" +
+            "          \"greeting\"\n" +
+            "        ],\n" +
+            "        \"status\": \"In Progress\",\n" +
+            "        \"notes\": \"Used until the evening\"\n" +
+            "      }\n" +
+            "    ],\n" +
+            "    \"nextCursor\": \"c2VhcmNofDUw\"\n" +
+            "  }\n" +
+            "}";
+
     public static final String QUIZ_LANGUAGE_GET_ALL_RESPONSE_EXAMPLE = "{\n" +
             "  \"success\": true,\n" +
             "  \"statusCode\": \"OK\",\n" +
@@ -505,6 +617,41 @@ public class SwaggerExamples {
             "  \"localDateTime\": \"2024-01-01T00:00:00.0000000\"\n" +
             "}";
 
+    public static final String PHRASE_EXPORT_NDJSON_RESPONSE_EXAMPLE = "{\"externalPhraseId\":\"550e8400-e29b-41d4-a716-446655440000\",\"originalPhrase\":\"Bonjour\",\"originalLanguage\":\"fr\",\"meaning\":\"Hello\",\"meaningLanguage\":\"en\",\"phraseTags\":[\"greeting\",\"basic\"],\"status\":\"In Progress\",\"notes\":\"Common polite greeting in French.\"}\n" +
+            "{\"externalPhraseId\":\"550e8400-e29b-41d4-a716-446655440001\",\"originalPhrase\":\"Merci\",\"originalLanguage\":\"fr\",\"meaning\":\"Thank you\",\"meaningLanguage\":\"en\",\"phraseTags\":[],\"status\":\"Learned\"}";
+
+    public static final String PHRASE_EXPORT_CSV_RESPONSE_EXAMPLE = "externalPhraseId,originalPhrase,originalLanguage,meaning,meaningLanguage,phraseTags,status,notes\n" +
+            "550e8400-e29b-41d4-a716-446655440000,Bonjour,fr,Hello,en,greeting;basic,In Progress,Common polite greeting in French.\n" +
+            "550e8400-e29b-41d4-a716-446655440001,Merci,fr,Thank you,en,,Learned,\n";
+
+    public static final String UNKNOWN_EXPORT_FORMAT_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": false,\n" +
+            "  \"message\": \"Unknown Export Format: xml\",\n" +
+            "  \"httpStatus\": \"BAD_REQUEST\",\n" +
+            "  \"localDateTime\": \"2024-01-01T00:00:00.0000000\"\n" +
+            "}";
+
+    public static final String UNKNOWN_LANGUAGE_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": false,\n" +
+            "  \"message\": \"Unknown Language Code: xx\",\n" +
+            "  \"httpStatus\": \"BAD_REQUEST\",\n" +
+            "  \"localDateTime\": \"2024-01-01T00:00:00.0000000\"\n" +
+            "}";
+
+    public static final String INVALID_IMPORT_FILE_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": false,\n" +
+            "  \"message\": \"The import file could not be read: Missing header line\",\n" +
+            "  \"httpStatus\": \"BAD_REQUEST\",\n" +
+            "  \"localDateTime\": \"2024-01-01T00:00:00.0000000\"\n" +
+            "}";
+
+    public static final String INVALID_SEARCH_QUERY_RESPONSE_EXAMPLE = "{\n" +
+            "  \"success\": false,\n" +
+            "  \"message\": \"The search query must contain a letter or a digit: ?!\",\n" +
+            "  \"httpStatus\": \"BAD_REQUEST\",\n" +
+            "  \"localDateTime\": \"2024-01-01T00:00:00.0000000\"\n" +
+            "}";
+
     public static final String VALIDATION_EXCEPTION_RESPONSE_EXAMPLE = "{\n" +
             "  \"success\": false,\n" +
             "  \"message\": \"Invalid Input(s)\",\n" +
@@ -0,0 +1,4 @@
+-- Spaced-repetition schedule of every phrase. Existing phrases are due at once with the initial interval and ease.
+ALTER TABLE phrases ADD COLUMN due_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE phrases ADD COLUMN review_interval_days INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE phrases ADD COLUMN ease_factor DOUBLE PRECISION DEFAULT 2.5 NOT NULL;
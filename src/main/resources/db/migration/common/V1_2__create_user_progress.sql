@@ -0,0 +1,9 @@
+-- Daily progress counters per user. They start empty on existing databases and are filled by the rebuild at startup.
+CREATE TABLE user_progress (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner_user_account_id UUID    NOT NULL,
+    bucket_date           DATE    NOT NULL,
+    learned               INTEGER NOT NULL,
+    added                 INTEGER NOT NULL,
+    CONSTRAINT uk_user_progress_owner_bucket_date UNIQUE (owner_user_account_id, bucket_date)
+);
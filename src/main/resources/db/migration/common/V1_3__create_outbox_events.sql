@@ -0,0 +1,12 @@
+-- Events written with the change they describe and relayed to Kafka in the background.
+CREATE TABLE outbox_events (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type      VARCHAR(255)  NOT NULL,
+    topic           VARCHAR(255)  NOT NULL,
+    user_account_id UUID          NOT NULL,
+    payload         TEXT          NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    next_attempt_at TIMESTAMP(6)  NOT NULL,
+    attempts        INTEGER       NOT NULL,
+    last_error      VARCHAR(1000)
+);
@@ -0,0 +1,11 @@
+-- Leases of the shards of the daily progress job, so every shard of a run is processed by one replica.
+CREATE TABLE job_shard_leases (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name     VARCHAR(255) NOT NULL,
+    run_date     DATE         NOT NULL,
+    shard        INTEGER      NOT NULL,
+    leased_by    VARCHAR(255) NOT NULL,
+    leased_until TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    CONSTRAINT uk_job_shard_leases_job_run_date_shard UNIQUE (job_name, run_date, shard)
+);
@@ -0,0 +1,34 @@
+-- The schema as Hibernate created it before migrations were introduced. Existing databases are baselined at this
+-- version, so it only runs on empty databases. Everything added since then belongs in a later version, which runs on
+-- baselined databases too.
+
+CREATE TABLE phrases (
+    id                                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    external_phrase_id                UUID         NOT NULL,
+    original_phrase                   VARCHAR(255) NOT NULL,
+    original_language                 VARCHAR(255) NOT NULL,
+    meaning                           VARCHAR(255) NOT NULL,
+    meaning_language                  VARCHAR(255) NOT NULL,
+    status                            VARCHAR(255) NOT NULL,
+    notes                             VARCHAR(255),
+    consecutive_correct_answer_amount INTEGER      NOT NULL,
+    owner_user_account_id             UUID         NOT NULL,
+    insert_date_time                  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_phrases_external_phrase_id UNIQUE (external_phrase_id)
+);
+
+CREATE TABLE tags (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tag_name              VARCHAR(255) NOT NULL,
+    owner_user_account_id UUID         NOT NULL,
+    CONSTRAINT uk_tags_owner_tag_name UNIQUE (owner_user_account_id, tag_name)
+);
+
+CREATE TABLE phrase_tags (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    phrase_id BIGINT NOT NULL,
+    tag_id    BIGINT NOT NULL,
+    CONSTRAINT uk_phrase_tags_phrase_tag UNIQUE (phrase_id, tag_id),
+    CONSTRAINT fk_phrase_tags_phrase FOREIGN KEY (phrase_id) REFERENCES phrases (id),
+    CONSTRAINT fk_phrase_tags_tag FOREIGN KEY (tag_id) REFERENCES tags (id)
+);
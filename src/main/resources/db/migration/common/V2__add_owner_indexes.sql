@@ -0,0 +1,27 @@
+-- One index per access path of the repositories. Every phrase query is scoped to one owner, so the owner comes first.
+-- Some of these indexes were created by Hibernate before migrations were introduced, hence IF NOT EXISTS.
+
+-- findByOriginalPhraseAndOwnerUserAccountId, findExistingOriginalPhrases (create, update, import duplicate checks)
+CREATE INDEX IF NOT EXISTS idx_phrases_owner_original_phrase ON phrases (owner_user_account_id, original_phrase);
+
+-- status filter of GET /phrases
+CREATE INDEX IF NOT EXISTS idx_phrases_owner_status ON phrases (owner_user_account_id, status);
+
+-- GET /phrases pages, findTop10ByOwnerUserAccountIdOrderByInsertDateTimeDesc, getDailyProgress and the other
+-- owner-only queries
+CREATE INDEX IF NOT EXISTS idx_phrases_owner_insert_date_time ON phrases (owner_user_account_id, insert_date_time, id);
+
+-- language filter of GET /phrases and findAllDistinctLanguages: the original and the meaning language are ORed, so
+-- each of them needs an index the two scans can be combined from
+CREATE INDEX IF NOT EXISTS idx_phrases_owner_language_due_at ON phrases (owner_user_account_id, original_language, due_at);
+CREATE INDEX IF NOT EXISTS idx_phrases_owner_meaning_language ON phrases (owner_user_account_id, meaning_language);
+
+-- GET /quiz/next-batch without a language
+CREATE INDEX IF NOT EXISTS idx_phrases_owner_due_at ON phrases (owner_user_account_id, due_at);
+
+-- tag filter of GET /phrases; (phrase_id, tag_id) is covered by its unique constraint
+CREATE INDEX IF NOT EXISTS idx_phrase_tags_tag_phrase ON phrase_tags (tag_id, phrase_id);
+
+-- outbox relay: due events, and the head of the queue of each user
+CREATE INDEX IF NOT EXISTS idx_outbox_events_next_attempt_at ON outbox_events (next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_user_account_id ON outbox_events (user_account_id, id);
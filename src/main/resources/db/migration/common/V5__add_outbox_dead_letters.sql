@@ -0,0 +1,12 @@
+-- Outbox events the relay gave up on. They keep the ID they had in outbox_events.
+CREATE TABLE outbox_dead_letters (
+    id               BIGINT        PRIMARY KEY,
+    event_type       VARCHAR(255)  NOT NULL,
+    topic            VARCHAR(255)  NOT NULL,
+    user_account_id  UUID          NOT NULL,
+    payload          TEXT          NOT NULL,
+    created_at       TIMESTAMP(6)  NOT NULL,
+    attempts         INTEGER       NOT NULL,
+    last_error       VARCHAR(1000),
+    dead_lettered_at TIMESTAMP(6)  NOT NULL
+);
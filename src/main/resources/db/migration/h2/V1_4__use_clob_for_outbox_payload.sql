@@ -0,0 +1,3 @@
+-- H2 reads TEXT as VARCHAR in PostgreSQL mode, while Hibernate maps the payload to a CLOB on H2 (and to TEXT on
+-- PostgreSQL), so schema validation needs the column converted on the embedded database.
+ALTER TABLE outbox_events ALTER COLUMN payload CLOB NOT NULL;
@@ -0,0 +1,2 @@
+-- See V1_4: schema validation needs the payload as a CLOB on the embedded database.
+ALTER TABLE outbox_dead_letters ALTER COLUMN payload CLOB NOT NULL;
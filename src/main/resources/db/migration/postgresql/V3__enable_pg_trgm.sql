@@ -0,0 +1,2 @@
+-- Trigram matching of the phrase search. Needs permission to create the extension.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,12 @@
+-- Indexes of the phrase search (PhraseRepository.searchPhraseIds). Built concurrently, so writes are not blocked on
+-- existing databases; Flyway runs this script outside a transaction. They may already exist where the service
+-- created them at startup before migrations were introduced.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_phrases_search_document ON phrases
+    USING gin (to_tsvector('simple', original_phrase || ' ' || meaning || ' ' || coalesce(notes, '')));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_phrases_original_phrase_trgm ON phrases USING gin (original_phrase gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_phrases_meaning_trgm ON phrases USING gin (meaning gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_phrases_notes_trgm ON phrases USING gin (notes gin_trgm_ops);
@@ -0,0 +1,44 @@
+package com.swiftling.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(SchemaIndexVerifier.class)
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    private SchemaIndexVerifier schemaIndexVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsCreateEveryExpectedIndex() {
+        assertThat(schemaIndexVerifier.findMissingIndexes()).isEmpty();
+    }
+
+    @Test
+    void missingIndexFailsTheStartup() {
+
+        jdbcTemplate.execute("DROP INDEX idx_phrases_owner_status");
+
+        try {
+            assertThatIllegalStateException().isThrownBy(schemaIndexVerifier::afterSingletonsInstantiated)
+                    .withMessageContaining("idx_phrases_owner_status");
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_phrases_owner_status ON phrases (owner_user_account_id, status)");
+        }
+
+    }
+
+}
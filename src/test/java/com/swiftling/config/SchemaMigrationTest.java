@@ -0,0 +1,43 @@
+package com.swiftling.config;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigrationTest {
+
+    @Test
+    void baselinedDatabaseGetsEverySchemaChangeSinceTheBaseline() {
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:swiftling_baselined_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        // A database Hibernate created before migrations were introduced
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_schema.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO phrases (external_phrase_id, original_phrase, original_language, meaning, "
+                + "meaning_language, status, consecutive_correct_answer_amount, owner_user_account_id, insert_date_time) "
+                + "VALUES (RANDOM_UUID(), 'bonjour', 'FRENCH', 'hello', 'ENGLISH', 'IN_PROGRESS', 0, RANDOM_UUID(), "
+                + "CURRENT_TIMESTAMP)");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables "
+                + "WHERE table_schema = 'public'", String.class))
+                .contains("user_progress", "outbox_events", "outbox_dead_letters", "job_shard_leases");
+        assertThat(jdbcTemplate.queryForObject("SELECT review_interval_days FROM phrases", Integer.class)).isZero();
+
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.swiftling.repository;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tag filters run as one query that reaches the phrases through indexes only, whatever the other filters are.
+ */
+@DataJpaTest
+class PhraseRepositoryTagFilterTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+    private static final int OWNER_COUNT = 4;
+    private static final int PHRASES_PER_OWNER = 50;
+    private static final LocalDateTime INSERT_DATE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private PhraseRepository phraseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Phrase bonjour;
+    private Phrase merci;
+    private Phrase hola;
+    private int phraseCount;
+
+    @BeforeEach
+    void setUp() {
+
+        Tag greeting = tag("greeting", OWNER_ID);
+        Tag polite = tag("polite", OWNER_ID);
+
+        bonjour = phrase("Bonjour", Language.FRENCH, Status.IN_PROGRESS, OWNER_ID, greeting, polite);
+        merci = phrase("Merci", Language.FRENCH, Status.LEARNED, OWNER_ID, polite);
+        hola = phrase("Hola", Language.SPANISH, Status.IN_PROGRESS, OWNER_ID, greeting);
+
+        for (int owner = 0; owner < OWNER_COUNT; owner++) {
+
+            UUID ownerId = owner == 0 ? OWNER_ID : UUID.randomUUID();
+            List<Tag> tags = List.of(tag("tag-a-" + owner, ownerId), tag("tag-b-" + owner, ownerId), tag("greeting-" + owner, ownerId));
+
+            for (int i = 0; i < PHRASES_PER_OWNER; i++) {
+                phrase("phrase " + owner + "-" + i, Language.ENGLISH, i % 2 == 0 ? Status.IN_PROGRESS : Status.LEARNED, ownerId,
+                        tags.get(i % tags.size()));
+            }
+
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+    }
+
+    @Test
+    void matchesAnyOrAllOfTheTags() {
+
+        assertThat(phraseRepository.findAllByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(OWNER_ID, null, null,
+                Set.of("greeting", "polite"), 1))
+                .extracting(Phrase::getId).containsExactlyInAnyOrder(bonjour.getId(), merci.getId(), hola.getId());
+        assertThat(phraseRepository.findAllByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(OWNER_ID, null, null,
+                Set.of("greeting", "polite"), 2))
+                .extracting(Phrase::getId).containsExactly(bonjour.getId());
+        assertThat(phraseRepository.findAllByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(OWNER_ID, Status.IN_PROGRESS.name(),
+                Language.SPANISH.name(), Set.of("greeting", "polite"), 1))
+                .extracting(Phrase::getId).containsExactly(hola.getId());
+        assertThat(phraseRepository.findFirstPageByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(OWNER_ID, null, null,
+                Set.of("greeting", "polite"), 1, 2))
+                .extracting(Phrase::getId).containsExactly(hola.getId(), merci.getId());
+        assertThat(phraseRepository.findNextPageByOwnerUserAccountIdAndOrStatusAndOrLanguageAndTags(OWNER_ID, null, null,
+                Set.of("greeting", "polite"), 1, merci.getInsertDateTime(), merci.getId(), 2))
+                .extracting(Phrase::getId).containsExactly(bonjour.getId());
+
+    }
+
+    @Test
+    void tagFilterQueriesDoNotScanTables() {
+
+        for (String status : new String[]{null, Status.IN_PROGRESS.name()}) {
+            for (String language : new String[]{null, Language.FRENCH.name()}) {
+
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("ownerUserAccountId", OWNER_ID)
+                        .addValue("status", new SqlParameterValue(Types.VARCHAR, status))
+                        .addValue("language", new SqlParameterValue(Types.VARCHAR, language))
+                        .addValue("tagNames", List.of("greeting", "polite"))
+                        .addValue("requiredTagCount", 2)
+                        .addValue("cursorInsertDateTime", LocalDateTime.now())
+                        .addValue("cursorId", Long.MAX_VALUE)
+                        .addValue("limit", 20);
+
+                for (String query : List.of(PhraseRepository.FIND_ALL_BY_TAGS, PhraseRepository.FIND_FIRST_PAGE_BY_TAGS,
+                        PhraseRepository.FIND_NEXT_PAGE_BY_TAGS)) {
+                    assertThat(explain(query, parameters)).doesNotContainIgnoringCase("tableScan");
+                }
+
+            }
+        }
+
+    }
+
+    private String explain(String query, MapSqlParameterSource parameters) {
+        return String.join("\n", new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList("EXPLAIN " + query, parameters, String.class));
+    }
+
+    private Tag tag(String tagName, UUID ownerId) {
+        Tag tag = new Tag();
+        tag.setTagName(tagName);
+        tag.setOwnerUserAccountId(ownerId);
+        entityManager.persist(tag);
+        return tag;
+    }
+
+    private Phrase phrase(String originalPhrase, Language originalLanguage, Status status, UUID ownerId, Tag... tags) {
+
+        Phrase phrase = new Phrase();
+        phrase.setExternalPhraseId(UUID.randomUUID());
+        phrase.setOriginalPhrase(originalPhrase);
+        phrase.setOriginalLanguage(originalLanguage);
+        phrase.setMeaning(originalPhrase);
+        phrase.setMeaningLanguage(Language.ENGLISH);
+        phrase.setStatus(status);
+        phrase.setConsecutiveCorrectAnswerAmount(0);
+        phrase.setOwnerUserAccountId(ownerId);
+        phrase.setInsertDateTime(INSERT_DATE_TIME.plusSeconds(phraseCount++));
+
+        for (Tag tag : tags) {
+            phrase.addTag(tag);
+        }
+
+        entityManager.persist(phrase);
+
+        return phrase;
+
+    }
+
+}
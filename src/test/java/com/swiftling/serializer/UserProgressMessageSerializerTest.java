@@ -0,0 +1,70 @@
+package com.swiftling.serializer;
+
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.dto.ProgressDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserProgressMessageSerializerTest {
+
+    private final UserProgressMessageSerializer serializer = new UserProgressMessageSerializer();
+
+    @Test
+    void encodesProgressMessagesInTheVersionedBinaryLayout() {
+
+        UserProgressMessageDTO message = new UserProgressMessageDTO(UUID.randomUUID(), Map.of(
+                "total-progress", new ProgressDTO(40, 120),
+                "monthly-progress", new ProgressDTO(10, 30),
+                "weekly-progress", new ProgressDTO(3, 7)),
+                LocalDateTime.of(2026, 10, 18, 9, 0, 0, 123_000_000));
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload = serializer.serialize("user-progress", headers, message);
+
+        assertThat(payload).hasSize(UserProgressMessageCodec.MESSAGE_LENGTH);
+        assertThat(payload[0]).isEqualTo(UserProgressMessageCodec.MAGIC);
+        assertThat(payload[1]).isEqualTo(UserProgressMessageCodec.VERSION);
+        assertThat(new String(headers.lastHeader(UserProgressMessageSerializer.CONTENT_TYPE_HEADER).value(), StandardCharsets.UTF_8))
+                .isEqualTo(UserProgressMessageCodec.CONTENT_TYPE);
+
+        UserProgressMessageDTO decoded = UserProgressMessageCodec.decode(payload);
+
+        assertThat(decoded.getUserAccountId()).isEqualTo(message.getUserAccountId());
+        assertThat(decoded.getTimestamp()).isEqualTo(message.getTimestamp());
+        assertThat(decoded.getProgress()).containsOnlyKeys("total-progress", "monthly-progress", "weekly-progress");
+        assertThat(decoded.getProgress().get("monthly-progress").getLearned()).isEqualTo(10);
+        assertThat(decoded.getProgress().get("monthly-progress").getAdded()).isEqualTo(30);
+
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+
+        byte[] payload = UserProgressMessageCodec.encode(new UserProgressMessageDTO(UUID.randomUUID(), Map.of(), LocalDateTime.now()));
+        payload[1] = 2;
+
+        assertThatThrownBy(() -> UserProgressMessageCodec.decode(payload)).isInstanceOf(IllegalArgumentException.class);
+
+    }
+
+    @Test
+    void delegatesOtherPayloadsToJson() {
+
+        PhraseDTO phrase = new PhraseDTO();
+        phrase.setOriginalPhrase("hello");
+
+        assertThat(new String(serializer.serialize("phrases", new RecordHeaders(), phrase), StandardCharsets.UTF_8))
+                .contains("\"originalPhrase\":\"hello\"");
+
+    }
+
+}
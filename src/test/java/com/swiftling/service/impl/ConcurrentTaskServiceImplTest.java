@@ -0,0 +1,87 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.ConcurrencyProperties;
+import com.swiftling.exception.PhraseNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentTaskServiceImplTest {
+
+    private ConcurrentTaskServiceImpl concurrentTaskService;
+
+    @AfterEach
+    void tearDown() {
+        concurrentTaskService.destroy();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void runsTasksOnVirtualThreadsWithTheCallersSecurityContext() {
+
+        concurrentTaskService = new ConcurrentTaskServiceImpl(properties(true));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null));
+
+        Future<String> task = concurrentTaskService.submit(() ->
+                SecurityContextHolder.getContext().getAuthentication().getName() + "@" + Thread.currentThread().isVirtual());
+
+        assertThat(concurrentTaskService.join(task)).isEqualTo("user@true");
+
+    }
+
+    @Test
+    void joinRethrowsTheFailureUnwrapped() {
+
+        concurrentTaskService = new ConcurrentTaskServiceImpl(properties(true));
+
+        Future<String> failing = concurrentTaskService.submit(() -> {
+            throw new PhraseNotFoundException("missing");
+        });
+
+        assertThatThrownBy(() -> concurrentTaskService.join(failing)).isInstanceOf(PhraseNotFoundException.class);
+
+    }
+
+    @Test
+    void joinGivesUpAfterTheTimeout() {
+
+        concurrentTaskService = new ConcurrentTaskServiceImpl(properties(true));
+
+        CountDownLatch never = new CountDownLatch(1);
+        Future<Boolean> blocking = concurrentTaskService.submit(() -> never.await(5, TimeUnit.SECONDS));
+
+        assertThatThrownBy(() -> concurrentTaskService.join(blocking))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not complete within");
+
+    }
+
+    @Test
+    void runsTasksInlineWhenDisabled() {
+
+        concurrentTaskService = new ConcurrentTaskServiceImpl(properties(false));
+
+        Thread caller = Thread.currentThread();
+
+        assertThat(concurrentTaskService.isEnabled()).isFalse();
+        assertThat(concurrentTaskService.join(concurrentTaskService.submit(() -> Thread.currentThread() == caller))).isTrue();
+
+    }
+
+    private static ConcurrencyProperties properties(boolean enabled) {
+        ConcurrencyProperties properties = new ConcurrencyProperties();
+        properties.setFanOutEnabled(enabled);
+        properties.setFanOutTimeout(Duration.ofMillis(500));
+        return properties;
+    }
+
+}
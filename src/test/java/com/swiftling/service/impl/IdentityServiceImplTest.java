@@ -0,0 +1,169 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.client.UserAccountClient;
+import com.swiftling.config.IdentityProperties;
+import com.swiftling.dto.UserAccountResponseDTO;
+import com.swiftling.exception.ExternalIdNotRetrievedException;
+import com.swiftling.service.ConcurrentTaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class IdentityServiceImplTest {
+
+    private static final UUID CLAIMED_ID = new UUID(0, 1);
+    private static final UUID FETCHED_ID = new UUID(0, 2);
+
+    private final UserAccountClient userAccountClient = mock(UserAccountClient.class);
+    private final ConcurrentTaskService concurrentTaskService = mock(ConcurrentTaskService.class);
+
+    private IdentityProperties identityProperties;
+    private IdentityServiceImpl identityService;
+
+    @BeforeEach
+    void setUp() {
+        identityProperties = new IdentityProperties();
+        identityProperties.setExternalIdClaim("");
+        identityProperties.setCacheTtl(Duration.ofMinutes(15));
+        identityProperties.setCacheMaxSize(10);
+        identityService = new IdentityServiceImpl(userAccountClient, identityProperties, concurrentTaskService);
+        when(userAccountClient.getUserAccountExternalId())
+                .thenReturn(ResponseEntity.ok(new UserAccountResponseDTO(true, HttpStatus.OK, null, FETCHED_ID.toString())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void configuredClaimIsReadWithoutCallingTheUserService() {
+
+        identityProperties.setExternalIdClaim("external_id");
+        authenticate("subject", Instant.now().plusSeconds(300), CLAIMED_ID.toString());
+
+        assertThat(identityService.getOwnerUserAccountId()).isEqualTo(CLAIMED_ID);
+
+        verifyNoInteractions(userAccountClient);
+
+    }
+
+    @Test
+    void invalidClaimFallsBackToTheUserService() {
+
+        identityProperties.setExternalIdClaim("external_id");
+        authenticate("subject", Instant.now().plusSeconds(300), "not-a-uuid");
+
+        assertThat(identityService.getOwnerUserAccountId()).isEqualTo(FETCHED_ID);
+
+    }
+
+    @Test
+    void subjectIsServedFromTheCacheAcrossRequests() {
+
+        authenticate("subject", Instant.now().plusSeconds(300), null);
+
+        assertThat(identityService.getOwnerUserAccountId()).isEqualTo(FETCHED_ID);
+        assertThat(identityService.getOwnerUserAccountId()).isEqualTo(FETCHED_ID);
+
+        verify(userAccountClient, times(1)).getUserAccountExternalId();
+
+    }
+
+    @Test
+    void resolvedIdIsRememberedForTheRequest() {
+
+        identityProperties.setCacheTtl(Duration.ZERO);
+        authenticate("subject", Instant.now().plusSeconds(300), null);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        identityService.getOwnerUserAccountId();
+        identityService.getOwnerUserAccountId();
+
+        verify(userAccountClient, times(1)).getUserAccountExternalId();
+
+    }
+
+    @Test
+    void cachedIdExpiresWithTheToken() {
+
+        authenticate("subject", Instant.now().minusSeconds(1), null);
+
+        identityService.getOwnerUserAccountId();
+        identityService.getOwnerUserAccountId();
+
+        verify(userAccountClient, times(2)).getUserAccountExternalId();
+
+    }
+
+    @Test
+    void leastRecentlyUsedSubjectIsDroppedBeyondMaxSize() {
+
+        identityProperties.setCacheMaxSize(1);
+
+        authenticate("first", Instant.now().plusSeconds(300), null);
+        identityService.getOwnerUserAccountId();
+        authenticate("second", Instant.now().plusSeconds(300), null);
+        identityService.getOwnerUserAccountId();
+        authenticate("first", Instant.now().plusSeconds(300), null);
+        identityService.getOwnerUserAccountId();
+
+        verify(userAccountClient, times(3)).getUserAccountExternalId();
+
+    }
+
+    @Test
+    void nonJwtAuthenticationIsResolvedByTheUserService() {
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null));
+
+        assertThat(identityService.getOwnerUserAccountId()).isEqualTo(FETCHED_ID);
+
+    }
+
+    @Test
+    void failedUserServiceCallIsReported() {
+
+        authenticate("subject", Instant.now().plusSeconds(300), null);
+        when(userAccountClient.getUserAccountExternalId())
+                .thenReturn(ResponseEntity.ok(new UserAccountResponseDTO(false, HttpStatus.NOT_FOUND, "Not found", null)));
+
+        assertThatThrownBy(identityService::getOwnerUserAccountId).isInstanceOf(ExternalIdNotRetrievedException.class);
+
+    }
+
+    private void authenticate(String subject, Instant expiresAt, String externalIdClaim) {
+
+        Jwt.Builder jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(subject)
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt);
+
+        if (externalIdClaim != null) {
+            jwt.claim("external_id", externalIdClaim);
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt.build()));
+
+    }
+
+}
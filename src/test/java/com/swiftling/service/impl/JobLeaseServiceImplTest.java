@@ -0,0 +1,167 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.JobLeaseProperties;
+import com.swiftling.config.ProgressFanOutProperties;
+import com.swiftling.entity.UserProgress;
+import com.swiftling.repository.JobShardLeaseRepository;
+import com.swiftling.repository.OwnerProgressView;
+import com.swiftling.repository.UserProgressRepository;
+import com.swiftling.service.PhraseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs without a surrounding test transaction, like the scheduled jobs, so every lease call commits on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JobLeaseServiceImpl.class, JobLeaseProperties.class})
+class JobLeaseServiceImplTest {
+
+    private static final String JOB = "test-job";
+    private static final LocalDate RUN_DATE = LocalDate.of(2026, 10, 18);
+
+    @Autowired
+    private JobLeaseServiceImpl jobLeaseService;
+
+    @Autowired
+    private JobLeaseProperties jobLeaseProperties;
+
+    @Autowired
+    private JobShardLeaseRepository jobShardLeaseRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void grantsEachShardToOneInstanceAndHandsOverExpiredLeases() {
+
+        JobLeaseServiceImpl otherInstance = new JobLeaseServiceImpl(jobShardLeaseRepository, jobLeaseProperties, transactionManager);
+
+        try {
+
+            assertThat(jobLeaseService.tryAcquire(JOB, RUN_DATE, 0)).isTrue();
+            assertThat(jobLeaseService.tryAcquire(JOB, RUN_DATE, 0)).isFalse();
+            assertThat(jobLeaseService.tryAcquire(JOB, RUN_DATE, 1)).isTrue();
+
+            jobLeaseProperties.setLeaseDuration(Duration.ofMinutes(-1));
+            assertThat(jobLeaseService.tryAcquire(JOB, RUN_DATE, 2)).isTrue();
+            jobLeaseProperties.setLeaseDuration(Duration.ofMinutes(15));
+
+            jobLeaseService.complete(JOB, RUN_DATE, 1);
+
+            assertThat(otherInstance.tryAcquire(JOB, RUN_DATE, 0)).isFalse();
+            assertThat(otherInstance.tryAcquire(JOB, RUN_DATE, 1)).isFalse();
+            assertThat(otherInstance.tryAcquire(JOB, RUN_DATE, 2)).isTrue();
+
+            assertThat(jobLeaseService.renew(JOB, RUN_DATE, 0)).isTrue();
+            assertThat(otherInstance.renew(JOB, RUN_DATE, 0)).isFalse();
+            assertThat(jobLeaseService.renew(JOB, RUN_DATE, 2)).isFalse();
+
+        } finally {
+            jobShardLeaseRepository.deleteAll();
+        }
+
+    }
+
+    @Test
+    void sweepTakesOverTheShardOfACrashedHolder() {
+
+        JobLeaseServiceImpl crashedInstance = new JobLeaseServiceImpl(jobShardLeaseRepository, jobLeaseProperties, transactionManager);
+        PhraseService phraseService = mock(PhraseService.class);
+        ProgressFanOutProperties properties = new ProgressFanOutProperties();
+        properties.setChunkSize(10);
+        properties.setMaxInFlight(10);
+        properties.setCompletionTimeout(Duration.ofSeconds(5));
+        properties.setShardCount(2);
+
+        @SuppressWarnings("unchecked")
+        KafkaProducerServiceImpl kafkaProducerService = new KafkaProducerServiceImpl(mock(KafkaTemplate.class), phraseService,
+                properties, jobLeaseService, new SimpleMeterRegistry());
+
+        when(phraseService.getUsersProgressPage(any(), any(), anyInt())).thenReturn(new LinkedHashMap<>());
+
+        String job = KafkaProducerServiceImpl.DAILY_PROGRESS_JOB;
+        LocalDate today = LocalDate.now();
+
+        try {
+
+            jobLeaseProperties.setLeaseDuration(Duration.ofMinutes(-1));
+            assertThat(crashedInstance.tryAcquire(job, today, 0)).isTrue();
+            jobLeaseProperties.setLeaseDuration(Duration.ofMinutes(15));
+
+            assertThat(jobLeaseService.tryAcquire(job, today, 1)).isTrue();
+            jobLeaseService.complete(job, today, 1);
+
+            kafkaProducerService.sweepIncompleteShards();
+
+            assertThat(jobLeaseService.findCompletedShards(job, today)).containsExactlyInAnyOrder(0, 1);
+            verify(phraseService).getUsersProgressPage(null, KafkaProducerServiceImpl.shardStart(1, 2), 10);
+
+            kafkaProducerService.sweepIncompleteShards();
+
+            verifyNoMoreInteractions(phraseService);
+
+        } finally {
+            jobLeaseProperties.setLeaseDuration(Duration.ofMinutes(15));
+            jobShardLeaseRepository.deleteAll();
+        }
+
+    }
+
+    @Test
+    void shardRangesCoverEveryUserExactlyOnce() {
+
+        Set<UUID> users = new HashSet<>();
+
+        try {
+
+            for (int i = 0; i < 200; i++) {
+                UUID user = UUID.randomUUID();
+                users.add(user);
+                userProgressRepository.save(new UserProgress(user, RUN_DATE, 1, 1));
+            }
+
+            List<UUID> published = new ArrayList<>();
+            int shardCount = 7;
+
+            for (int shard = 0; shard < shardCount; shard++) {
+
+                UUID after = Optional.ofNullable(KafkaProducerServiceImpl.shardStart(shard, shardCount)).orElse(new UUID(0, 0));
+                UUID upTo = Optional.ofNullable(KafkaProducerServiceImpl.shardStart(shard + 1, shardCount)).orElse(new UUID(-1, -1));
+
+                userProgressRepository.getProgressPage(after, upTo, RUN_DATE, RUN_DATE, RUN_DATE, Limit.of(1000))
+                        .stream().map(OwnerProgressView::getOwnerUserAccountId)
+                        .forEach(published::add);
+
+            }
+
+            assertThat(published).hasSize(users.size()).containsExactlyInAnyOrderElementsOf(users);
+
+        } finally {
+            userProgressRepository.deleteAll();
+        }
+
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.ProgressFanOutProperties;
+import com.swiftling.dto.ProgressDTO;
+import com.swiftling.service.JobLeaseService;
+import com.swiftling.service.PhraseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class KafkaProducerServiceImplTest {
+
+    private static final List<UUID> USERS = List.of(
+            new UUID(0, 1), new UUID(0, 2), new UUID(0, 3), new UUID(0, 4), new UUID(0, 5));
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final PhraseService phraseService = mock(PhraseService.class);
+    private final JobLeaseService jobLeaseService = mock(JobLeaseService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KafkaProducerServiceImpl kafkaProducerService;
+
+    @BeforeEach
+    void setUp() {
+
+        ProgressFanOutProperties properties = new ProgressFanOutProperties();
+        properties.setChunkSize(2);
+        properties.setMaxInFlight(2);
+        properties.setCompletionTimeout(Duration.ofSeconds(5));
+        properties.setShardCount(1);
+
+        kafkaProducerService = new KafkaProducerServiceImpl(kafkaTemplate, phraseService, properties, jobLeaseService, meterRegistry);
+        ReflectionTestUtils.setField(kafkaProducerService, "userProgressTopic", "user-progress");
+
+        when(jobLeaseService.tryAcquire(anyString(), any(), anyInt())).thenReturn(true);
+        when(jobLeaseService.renew(anyString(), any(), anyInt())).thenReturn(true);
+        when(phraseService.getUsersProgressPage(any(), isNull(), eq(2))).thenAnswer(invocation -> {
+            UUID after = invocation.getArgument(0);
+            int from = after == null ? 0 : USERS.indexOf(after) + 1;
+            LinkedHashMap<UUID, Map<String, ProgressDTO>> page = new LinkedHashMap<>();
+            USERS.subList(from, Math.min(from + 2, USERS.size()))
+                    .forEach(user -> page.put(user, Map.of("total-progress", new ProgressDTO(1, 2))));
+            return page;
+        });
+
+    }
+
+    @Test
+    void publishesEveryUserChunkByChunkAndRecordsTheOutcome() {
+
+        when(kafkaTemplate.send(eq("user-progress"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        kafkaProducerService.sendAllUsersProgressMessages();
+
+        verify(phraseService).getUsersProgressPage(null, null, 2);
+        verify(phraseService).getUsersProgressPage(USERS.get(1), null, 2);
+        verify(phraseService).getUsersProgressPage(USERS.get(3), null, 2);
+        verify(jobLeaseService).complete(anyString(), any(), eq(0));
+        verify(kafkaTemplate, times(5)).send(eq("user-progress"), anyString(), any());
+        verify(kafkaTemplate).send(eq("user-progress"), eq(USERS.get(0).toString()), any());
+
+        assertThat(meterRegistry.get("swiftling.progress.fanout.messages").tag("result", "sent").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("swiftling.progress.fanout.messages").tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("swiftling.progress.fanout.users").summary().totalAmount()).isEqualTo(5);
+        assertThat(meterRegistry.get("swiftling.kafka.send").tag("result", "success").timer().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("swiftling.kafka.send").tag("exception", "IllegalStateException").timer().count()).isEqualTo(1);
+
+    }
+
+    @Test
+    void waitsForAcknowledgementsOnceMaxInFlightIsReached() throws InterruptedException {
+
+        List<CompletableFuture<SendResult<String, Object>>> pendingSends = new CopyOnWriteArrayList<>();
+
+        when(kafkaTemplate.send(eq("user-progress"), anyString(), any())).thenAnswer(invocation -> {
+            CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+            pendingSends.add(future);
+            return future;
+        });
+
+        Thread job = new Thread(kafkaProducerService::sendAllUsersProgressMessages);
+        job.start();
+
+        while (pendingSends.size() < 2) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertThat(pendingSends).hasSize(2);
+
+        while (job.isAlive()) {
+            pendingSends.forEach(future -> future.complete(null));
+            job.join(50);
+        }
+
+        assertThat(pendingSends).hasSize(5);
+        assertThat(meterRegistry.get("swiftling.progress.fanout.messages").tag("result", "sent").counter().count()).isEqualTo(5);
+
+    }
+
+    @Test
+    void stopsTheShardOnceItsLeaseWasTakenOver() {
+
+        when(kafkaTemplate.send(eq("user-progress"), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(jobLeaseService.renew(anyString(), any(), anyInt())).thenReturn(true, false);
+
+        kafkaProducerService.sendAllUsersProgressMessages();
+
+        verify(phraseService, never()).getUsersProgressPage(eq(USERS.get(3)), any(), anyInt());
+        verify(kafkaTemplate, times(4)).send(eq("user-progress"), anyString(), any());
+        verify(jobLeaseService, never()).complete(anyString(), any(), anyInt());
+
+    }
+
+    @Test
+    void skipsShardsLeasedByOtherInstances() {
+
+        ProgressFanOutProperties properties = new ProgressFanOutProperties();
+        properties.setChunkSize(2);
+        properties.setMaxInFlight(2);
+        properties.setCompletionTimeout(Duration.ofSeconds(5));
+        properties.setShardCount(4);
+
+        kafkaProducerService = new KafkaProducerServiceImpl(kafkaTemplate, phraseService, properties, jobLeaseService, meterRegistry);
+
+        when(jobLeaseService.tryAcquire(anyString(), any(), anyInt())).thenAnswer(invocation -> (int) invocation.getArgument(2) == 2);
+        when(phraseService.getUsersProgressPage(any(), any(), anyInt())).thenReturn(new LinkedHashMap<>());
+
+        kafkaProducerService.sendAllUsersProgressMessages();
+
+        verify(phraseService).getUsersProgressPage(
+                KafkaProducerServiceImpl.shardStart(2, 4), KafkaProducerServiceImpl.shardStart(3, 4), 2);
+        verifyNoMoreInteractions(phraseService);
+        verify(jobLeaseService).complete(anyString(), any(), eq(2));
+
+    }
+
+    @Test
+    void sweepRetriesOnlyTheIncompleteShardsOfAStartedRun() {
+
+        ProgressFanOutProperties properties = new ProgressFanOutProperties();
+        properties.setChunkSize(2);
+        properties.setMaxInFlight(2);
+        properties.setCompletionTimeout(Duration.ofSeconds(5));
+        properties.setShardCount(4);
+
+        kafkaProducerService = new KafkaProducerServiceImpl(kafkaTemplate, phraseService, properties, jobLeaseService, meterRegistry);
+
+        when(jobLeaseService.hasStarted(anyString(), any())).thenReturn(false, true);
+        when(jobLeaseService.findCompletedShards(anyString(), any())).thenReturn(Set.of(0, 1, 3));
+        when(phraseService.getUsersProgressPage(any(), any(), anyInt())).thenReturn(new LinkedHashMap<>());
+
+        kafkaProducerService.sweepIncompleteShards();
+
+        verify(jobLeaseService, never()).tryAcquire(anyString(), any(), anyInt());
+
+        kafkaProducerService.sweepIncompleteShards();
+
+        verify(jobLeaseService, times(1)).tryAcquire(anyString(), any(), anyInt());
+        verify(jobLeaseService).complete(anyString(), any(), eq(2));
+        verify(phraseService).getUsersProgressPage(
+                KafkaProducerServiceImpl.shardStart(2, 4), KafkaProducerServiceImpl.shardStart(3, 4), 2);
+        verifyNoMoreInteractions(phraseService);
+
+    }
+
+    @Test
+    void shardRangesSplitTheIdSpaceInOrder() {
+
+        assertThat(KafkaProducerServiceImpl.shardStart(0, 4)).isNull();
+        assertThat(KafkaProducerServiceImpl.shardStart(1, 4)).isEqualTo(UUID.fromString("3fffffff-ffff-ffff-ffff-ffffffffffff"));
+        assertThat(KafkaProducerServiceImpl.shardStart(2, 4)).isEqualTo(UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff"));
+        assertThat(KafkaProducerServiceImpl.shardStart(3, 4)).isEqualTo(UUID.fromString("bfffffff-ffff-ffff-ffff-ffffffffffff"));
+        assertThat(KafkaProducerServiceImpl.shardStart(4, 4)).isNull();
+
+    }
+
+}
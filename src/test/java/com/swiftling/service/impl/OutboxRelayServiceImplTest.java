@@ -0,0 +1,190 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftling.config.OutboxProperties;
+import com.swiftling.dto.PhraseChangeMessageDTO;
+import com.swiftling.dto.ProgressDTO;
+import com.swiftling.dto.UserProgressMessageDTO;
+import com.swiftling.entity.OutboxEvent;
+import com.swiftling.enums.PhraseChangeType;
+import com.swiftling.repository.OutboxDeadLetterRepository;
+import com.swiftling.repository.OutboxEventRepository;
+import com.swiftling.service.KafkaProducerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs without a surrounding test transaction: events are enqueued and relayed in transactions of their own.
+ */
+@DataJpaTest(properties = "kafka.topic.user-progress=user-progress")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxServiceImpl.class, OutboxProperties.class})
+class OutboxRelayServiceImplTest {
+
+    private static final UUID FIRST_USER = new UUID(0, 1);
+    private static final UUID SECOND_USER = new UUID(0, 2);
+
+    @MockitoBean
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private OutboxServiceImpl outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelayServiceImpl outboxRelayService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelayService = new OutboxRelayServiceImpl(outboxEventRepository, outboxDeadLetterRepository,
+                kafkaProducerService, outboxProperties, objectMapper, transactionTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        outboxDeadLetterRepository.deleteAll();
+        outboxProperties.setInitialBackoff(Duration.ofSeconds(1));
+        outboxProperties.setMaxAttempts(20);
+    }
+
+    @Test
+    void relaysEventsInOrderPerUserAndRetriesFailedOnesLater() {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueuePhraseChangeMessage(phraseChange(FIRST_USER, PhraseChangeType.CREATED));
+            outboxService.enqueueUserProgressMessage(progress(SECOND_USER));
+            outboxService.enqueuePhraseChangeMessage(phraseChange(FIRST_USER, PhraseChangeType.DELETED));
+        });
+
+        when(kafkaProducerService.send(eq("phrase-changes"), eq(FIRST_USER), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaProducerService.send(eq("user-progress"), eq(SECOND_USER), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        outboxRelayService.relay();
+
+        InOrder inOrder = inOrder(kafkaProducerService);
+        inOrder.verify(kafkaProducerService).send(eq("phrase-changes"), eq(FIRST_USER),
+                argThat(message -> ((PhraseChangeMessageDTO) message).getChangeType() == PhraseChangeType.CREATED));
+        inOrder.verify(kafkaProducerService).send(eq("phrase-changes"), eq(FIRST_USER),
+                argThat(message -> ((PhraseChangeMessageDTO) message).getChangeType() == PhraseChangeType.DELETED));
+        verify(kafkaProducerService).send(eq("user-progress"), eq(SECOND_USER), any(UserProgressMessageDTO.class));
+
+        List<OutboxEvent> pending = outboxEventRepository.findAll();
+
+        assertThat(pending).singleElement().satisfies(event -> {
+            assertThat(event.getUserAccountId()).isEqualTo(SECOND_USER);
+            assertThat(event.getAttempts()).isEqualTo(1);
+            assertThat(event.getNextAttemptAt()).isAfter(LocalDateTime.now());
+            assertThat(event.getLastError()).contains("broker down");
+        });
+        assertThat(meterRegistry.get("swiftling.outbox.events").tag("result", "published").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("swiftling.outbox.events").tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("swiftling.outbox.backlog").gauge().value()).isEqualTo(1);
+
+        assertThat(outboxRelayService.relayBatch()).isZero();
+
+    }
+
+    @Test
+    void movesAnEventThatKeepsFailingToTheDeadLettersAndUnblocksTheUser() {
+
+        outboxProperties.setInitialBackoff(Duration.ZERO);
+        outboxProperties.setMaxAttempts(3);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueuePhraseChangeMessage(phraseChange(FIRST_USER, PhraseChangeType.CREATED));
+            outboxService.enqueuePhraseChangeMessage(phraseChange(FIRST_USER, PhraseChangeType.DELETED));
+        });
+
+        when(kafkaProducerService.send(eq("phrase-changes"), eq(FIRST_USER),
+                argThat(message -> ((PhraseChangeMessageDTO) message).getChangeType() == PhraseChangeType.CREATED)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+        when(kafkaProducerService.send(eq("phrase-changes"), eq(FIRST_USER),
+                argThat(message -> ((PhraseChangeMessageDTO) message).getChangeType() == PhraseChangeType.DELETED)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        Long poisonEventId = outboxEventRepository.findAll().getFirst().getId();
+
+        outboxRelayService.relayBatch();
+        outboxRelayService.relayBatch();
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        outboxRelayService.relayBatch();
+        outboxRelayService.relay();
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(outboxDeadLetterRepository.findAll()).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getId()).isEqualTo(poisonEventId);
+            assertThat(deadLetter.getUserAccountId()).isEqualTo(FIRST_USER);
+            assertThat(deadLetter.getAttempts()).isEqualTo(3);
+            assertThat(deadLetter.getLastError()).contains("record too large");
+            assertThat(objectMapper.readValue(deadLetter.getPayload(), PhraseChangeMessageDTO.class).getChangeType())
+                    .isEqualTo(PhraseChangeType.CREATED);
+        });
+        verify(kafkaProducerService).send(eq("phrase-changes"), eq(FIRST_USER),
+                argThat(message -> ((PhraseChangeMessageDTO) message).getChangeType() == PhraseChangeType.DELETED));
+        assertThat(meterRegistry.get("swiftling.outbox.events").tag("result", "dead_lettered").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("swiftling.outbox.dead.letters").gauge().value()).isEqualTo(1);
+
+    }
+
+    private static PhraseChangeMessageDTO phraseChange(UUID userAccountId, PhraseChangeType changeType) {
+        return PhraseChangeMessageDTO.builder()
+                .changeType(changeType)
+                .userAccountId(userAccountId)
+                .externalPhraseId(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static UserProgressMessageDTO progress(UUID userAccountId) {
+        return UserProgressMessageDTO.builder()
+                .userAccountId(userAccountId)
+                .progress(Map.of("daily-progress", new ProgressDTO(1, 2)))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.enums.ExportFormat;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import com.swiftling.service.IdentityService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(PhraseExportServiceImpl.class)
+class PhraseExportServiceImplTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+
+    @MockitoBean
+    private IdentityService identityService;
+
+    @Autowired
+    private PhraseExportServiceImpl phraseExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+
+        when(identityService.getOwnerUserAccountId()).thenReturn(OWNER_ID);
+
+        Tag greeting = tag("Greeting", OWNER_ID);
+        Tag basic = tag("Basic", OWNER_ID);
+
+        phrase("Bonjour", "Hello", Status.IN_PROGRESS, "Common greeting", OWNER_ID, greeting, basic);
+        phrase("Merci", "Thank you", Status.LEARNED, null, OWNER_ID);
+        phrase("Salut", "Hi", Status.IN_PROGRESS, null, UUID.randomUUID());
+
+        entityManager.flush();
+        entityManager.clear();
+
+    }
+
+    @Test
+    void exportsOneNdjsonLinePerPhraseWithItsTags() throws IOException {
+
+        List<String> lines = export(ExportFormat.NDJSON).lines().toList();
+
+        assertThat(lines).hasSize(2);
+
+        PhraseDTO bonjour = objectMapper.readValue(lines.get(0), PhraseDTO.class);
+        PhraseDTO merci = objectMapper.readValue(lines.get(1), PhraseDTO.class);
+
+        assertThat(bonjour.getOriginalPhrase()).isEqualTo("Bonjour");
+        assertThat(bonjour.getOriginalLanguage()).isEqualTo("fr");
+        assertThat(bonjour.getPhraseTags()).containsExactlyInAnyOrder("greeting", "basic");
+        assertThat(bonjour.getNotes()).isEqualTo("Common greeting");
+        assertThat(merci.getOriginalPhrase()).isEqualTo("Merci");
+        assertThat(merci.getPhraseTags()).isEmpty();
+        assertThat(lines.get(1)).contains("\"status\":\"Learned\"");
+
+    }
+
+    @Test
+    void exportsCsvWithHeader() throws IOException {
+
+        List<String> lines = export(ExportFormat.CSV).lines().toList();
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("externalPhraseId,originalPhrase,originalLanguage,meaning,meaningLanguage,phraseTags,status,notes");
+        assertThat(lines.get(1)).matches(".*,Bonjour,fr,Hello,en,(greeting;basic|basic;greeting),\"In Progress\",\"Common greeting\"");
+        assertThat(lines.get(2)).endsWith(",Merci,fr,\"Thank you\",en,,Learned,");
+
+    }
+
+    private String export(ExportFormat exportFormat) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        phraseExportService.exportPhrases(exportFormat).writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private void phrase(String originalPhrase, String meaning, Status status, String notes, UUID ownerId, Tag... tags) {
+
+        Phrase phrase = new Phrase();
+        phrase.setExternalPhraseId(UUID.randomUUID());
+        phrase.setOriginalPhrase(originalPhrase);
+        phrase.setOriginalLanguage(Language.FRENCH);
+        phrase.setMeaning(meaning);
+        phrase.setMeaningLanguage(Language.ENGLISH);
+        phrase.setStatus(status);
+        phrase.setNotes(notes);
+        phrase.setConsecutiveCorrectAnswerAmount(0);
+        phrase.setOwnerUserAccountId(ownerId);
+        phrase.setInsertDateTime(LocalDateTime.now());
+
+        for (Tag tag : tags) {
+            phrase.addTag(tag);
+        }
+
+        entityManager.persist(phrase);
+
+    }
+
+    private Tag tag(String tagName, UUID ownerId) {
+        Tag tag = new Tag();
+        tag.setTagName(tagName);
+        tag.setOwnerUserAccountId(ownerId);
+        entityManager.persist(tag);
+        return tag;
+    }
+
+}
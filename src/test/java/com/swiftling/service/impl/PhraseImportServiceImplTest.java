@@ -0,0 +1,224 @@
+package com.swiftling.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftling.config.PhraseImportProperties;
+import com.swiftling.dto.PhraseImportReportDTO;
+import com.swiftling.dto.PhraseImportRowReportDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.PhraseTag;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import com.swiftling.exception.InvalidImportFileException;
+import com.swiftling.repository.PhraseBatchRepository;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.service.IdentityService;
+import com.swiftling.service.OutboxService;
+import com.swiftling.service.ProgressCounterService;
+import com.swiftling.service.QuizSamplingService;
+import com.swiftling.service.TagDictionaryService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "phrase-import.batch-size=2")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({PhraseBatchRepository.class, PhraseImportProperties.class})
+class PhraseImportServiceImplTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+
+    @MockitoBean
+    private IdentityService identityService;
+
+    @MockitoBean
+    private ProgressCounterService progressCounterService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private TagDictionaryService tagDictionaryService;
+
+    @MockitoBean
+    private QuizSamplingService quizSamplingService;
+
+    @Autowired
+    private PhraseRepository phraseRepository;
+
+    @Autowired
+    private PhraseBatchRepository phraseBatchRepository;
+
+    @Autowired
+    private PhraseImportProperties phraseImportProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private PhraseImportServiceImpl phraseImportService;
+
+    @BeforeEach
+    void setUp() {
+
+        when(identityService.getOwnerUserAccountId()).thenReturn(OWNER_ID);
+
+        phraseImportService = new PhraseImportServiceImpl(phraseRepository, phraseBatchRepository, identityService,
+                progressCounterService, outboxService, tagDictionaryService, quizSamplingService, phraseImportProperties,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate, objectMapper);
+
+        Phrase existing = new Phrase();
+        existing.setExternalPhraseId(UUID.randomUUID());
+        existing.setOriginalPhrase("Merci");
+        existing.setOriginalLanguage(Language.FRENCH);
+        existing.setMeaning("Thank you");
+        existing.setMeaningLanguage(Language.ENGLISH);
+        existing.setStatus(Status.IN_PROGRESS);
+        existing.setConsecutiveCorrectAnswerAmount(0);
+        existing.setOwnerUserAccountId(OWNER_ID);
+        existing.setInsertDateTime(LocalDateTime.now());
+        phraseRepository.saveAndFlush(existing);
+
+    }
+
+    @Test
+    void importsCsvRowsAndReportsEveryOtherRow() {
+
+        String csv = """
+                originalPhrase,originalLanguage,meaning,meaningLanguage,phraseTags,notes
+                Bonjour,fr,Hello,en,Greeting;basic,Common greeting
+                Merci,fr,Thank you,en,basic,
+                Salut,fr,,en,,
+                Au revoir,xx,Goodbye,en,,
+                Bonjour,fr,Hello again,en,,
+                Bonsoir,FR,Good evening,EN,greeting,
+                """;
+
+        PhraseImportReportDTO report = importPhrases(csv, PhraseImportServiceImpl.TEXT_CSV);
+
+        assertThat(report.getRows()).extracting(PhraseImportRowReportDTO::getRow, PhraseImportRowReportDTO::getOutcome)
+                .containsExactly(
+                        tuple(1, "Imported"), tuple(2, "Duplicate"), tuple(3, "Invalid"),
+                        tuple(4, "Invalid"), tuple(5, "Duplicate"), tuple(6, "Imported"));
+        assertThat(report.getImportedCount()).isEqualTo(2);
+        assertThat(report.getDuplicateCount()).isEqualTo(2);
+        assertThat(report.getInvalidCount()).isEqualTo(2);
+        assertThat(report.getFailedCount()).isZero();
+
+        entityManager.clear();
+
+        Phrase bonjour = phraseRepository.findByOriginalPhraseAndOwnerUserAccountId("Bonjour", OWNER_ID).orElseThrow();
+
+        assertThat(bonjour.getExternalPhraseId()).isEqualTo(report.getRows().get(0).getExternalPhraseId());
+        assertThat(bonjour.getNotes()).isEqualTo("Common greeting");
+        assertThat(bonjour.getPhraseTags()).extracting(PhraseTag::getTag).extracting("tagName")
+                .containsExactlyInAnyOrder("greeting", "basic");
+
+        Phrase bonsoir = phraseRepository.findByOriginalPhraseAndOwnerUserAccountId("Bonsoir", OWNER_ID).orElseThrow();
+
+        assertThat(bonsoir.getPhraseTags()).extracting(PhraseTag::getTag)
+                .containsExactly(bonjour.getPhraseTags().stream()
+                        .map(PhraseTag::getTag)
+                        .filter(tag -> tag.getTagName().equals("greeting"))
+                        .findFirst().orElseThrow());
+
+        verify(progressCounterService, times(2)).recordAdded(eq(OWNER_ID), eq(LocalDate.now()), eq(1));
+        verify(outboxService, times(2)).enqueuePhraseChangeMessage(any());
+
+    }
+
+    @Test
+    void importsNdjsonRows() {
+
+        String ndjson = """
+                {"originalPhrase": "Hola", "originalLanguage": "es", "meaning": "Hello", "meaningLanguage": "en", "phraseTags": ["greeting"]}
+                {"originalPhrase": "Gracias", "originalLanguage": "es", "meaning": "Thank you", "meaningLanguage": "en", "status": "Mastered"}
+                not json
+                """;
+
+        PhraseImportReportDTO report = importPhrases(ndjson, MediaType.valueOf("application/x-ndjson"));
+
+        assertThat(report.getImportedCount()).isEqualTo(2);
+        assertThat(report.getInvalidCount()).isEqualTo(1);
+        assertThat(report.getRows().get(2).getRow()).isEqualTo(3);
+
+        entityManager.clear();
+
+        assertThat(phraseRepository.findByOriginalPhraseAndOwnerUserAccountId("Gracias", OWNER_ID).orElseThrow().getStatus())
+                .isEqualTo(Status.IN_PROGRESS);
+
+    }
+
+    @Test
+    void reportsUploadThatBreaksOffAfterImportingTheRowsReadBeforeIt() {
+
+        String csv = """
+                originalPhrase,originalLanguage,meaning,meaningLanguage
+                Bonjour,fr,Hello,en
+                Bonsoir,fr,Good evening,en
+                Salut,fr,Hi,en
+                Coucou,fr,Hey,en
+                """;
+
+        InputStream brokenUpload = new SequenceInputStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+
+        PhraseImportReportDTO report = phraseImportService.importPhrases(brokenUpload, PhraseImportServiceImpl.TEXT_CSV);
+
+        assertThat(report.getRows()).extracting(PhraseImportRowReportDTO::getRow, PhraseImportRowReportDTO::getOutcome)
+                .containsExactly(tuple(1, "Imported"), tuple(2, "Imported"), tuple(3, "Imported"), tuple(4, "Invalid"));
+        assertThat(report.getRows().get(3).getMessage()).isEqualTo("The file could not be read from this row on: Connection reset");
+        assertThat(report.getImportedCount()).isEqualTo(3);
+
+        entityManager.clear();
+
+        assertThat(phraseRepository.findByOriginalPhraseAndOwnerUserAccountId("Salut", OWNER_ID)).isPresent();
+        assertThat(phraseRepository.findByOriginalPhraseAndOwnerUserAccountId("Coucou", OWNER_ID)).isEmpty();
+
+    }
+
+    @Test
+    void rejectsUnreadableFile() {
+        assertThatThrownBy(() -> importPhrases("not json\n", MediaType.valueOf("application/x-ndjson")))
+                .isInstanceOf(InvalidImportFileException.class);
+    }
+
+    private PhraseImportReportDTO importPhrases(String content, MediaType contentType) {
+        return phraseImportService.importPhrases(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), contentType);
+    }
+
+}
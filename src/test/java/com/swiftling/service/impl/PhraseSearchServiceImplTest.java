@@ -0,0 +1,112 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.entity.Phrase;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import com.swiftling.exception.InvalidSearchQueryException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * The embedded database is not PostgreSQL, so these tests cover the in-process search.
+ */
+@DataJpaTest
+@Import(PhraseSearchServiceImpl.class)
+class PhraseSearchServiceImplTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+
+    @Autowired
+    private PhraseSearchServiceImpl phraseSearchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long bonjour;
+    private Long bonsoir;
+    private Long merci;
+
+    @BeforeEach
+    void setUp() {
+
+        bonjour = phrase("Bonjour", "Hello", "Used until the evening", OWNER_ID);
+        bonsoir = phrase("Bonsoir", "Good evening", null, OWNER_ID);
+        merci = phrase("Merci beaucoup", "Thank you very much", "Polite, after bonjour", OWNER_ID);
+        phrase("Bonjour", "Hello", null, UUID.randomUUID());
+
+        entityManager.flush();
+        entityManager.clear();
+
+    }
+
+    @Test
+    void ranksExactBeforePrefixBeforeNotesMatches() {
+
+        assertThat(phraseSearchService.search(OWNER_ID, "bonjour", 0, 10)).containsExactly(bonjour, merci);
+        assertThat(phraseSearchService.search(OWNER_ID, "BON", 0, 10)).containsExactly(bonsoir, bonjour, merci);
+        assertThat(phraseSearchService.search(OWNER_ID, "evening", 0, 10)).containsExactly(bonsoir, bonjour);
+
+    }
+
+    @Test
+    void matchesTyposAndRequiresEveryTerm() {
+
+        assertThat(phraseSearchService.search(OWNER_ID, "bonjor", 0, 10)).containsExactly(bonjour, merci);
+        assertThat(phraseSearchService.search(OWNER_ID, "thank much", 0, 10)).containsExactly(merci);
+        assertThat(phraseSearchService.search(OWNER_ID, "thank hello", 0, 10)).isEmpty();
+
+    }
+
+    @Test
+    void returnsTheRequestedPage() {
+
+        assertThat(phraseSearchService.search(OWNER_ID, "evening", 0, 1)).containsExactly(bonsoir);
+        assertThat(phraseSearchService.search(OWNER_ID, "evening", 1, 1)).containsExactly(bonjour);
+        assertThat(phraseSearchService.search(OWNER_ID, "evening", 2, 1)).isEmpty();
+
+    }
+
+    @Test
+    void rejectsQueriesWithoutWords() {
+        assertThatThrownBy(() -> phraseSearchService.search(OWNER_ID, " ?! ", 0, 10))
+                .isInstanceOf(InvalidSearchQueryException.class);
+    }
+
+    @Test
+    void wordSimilarityMatchesPgTrgm() {
+        assertThat(PhraseSearchServiceImpl.wordSimilarity(PhraseSearchServiceImpl.trigrams("word"), "words")).isEqualTo(0.8, offset(1e-9));
+    }
+
+    private Long phrase(String originalPhrase, String meaning, String notes, UUID ownerId) {
+
+        Phrase phrase = new Phrase();
+        phrase.setExternalPhraseId(UUID.randomUUID());
+        phrase.setOriginalPhrase(originalPhrase);
+        phrase.setOriginalLanguage(Language.FRENCH);
+        phrase.setMeaning(meaning);
+        phrase.setMeaningLanguage(Language.ENGLISH);
+        phrase.setStatus(Status.IN_PROGRESS);
+        phrase.setNotes(notes);
+        phrase.setConsecutiveCorrectAnswerAmount(0);
+        phrase.setOwnerUserAccountId(ownerId);
+        phrase.setInsertDateTime(LocalDateTime.now());
+
+        entityManager.persist(phrase);
+
+        return phrase.getId();
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.PaginationProperties;
+import com.swiftling.config.QuizProperties;
+import com.swiftling.dto.PhraseChangeMessageDTO;
+import com.swiftling.dto.PhraseDTO;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.PhraseChangeType;
+import com.swiftling.enums.Status;
+import com.swiftling.mapper.PhraseMapperImpl;
+import com.swiftling.repository.PhraseBatchRepository;
+import com.swiftling.repository.TagRepository;
+import com.swiftling.service.IdentityService;
+import com.swiftling.service.OutboxService;
+import com.swiftling.service.PhraseSearchService;
+import com.swiftling.service.ProgressCounterService;
+import com.swiftling.service.PronunciationService;
+import com.swiftling.service.QuizSamplingService;
+import com.swiftling.service.TagDictionaryService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Listing endpoints must load the tags of all returned phrases with a single query, not one query per phrase.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PhraseServiceImpl.class, PhraseMapperImpl.class, PaginationProperties.class, PhraseBatchRepository.class,
+        SpacedRepetitionServiceImpl.class, QuizProperties.class})
+class PhraseServiceImplQueryCountTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+    private static final int PHRASE_COUNT = 12;
+
+    @MockitoBean
+    private IdentityService identityService;
+
+    @MockitoBean
+    private PronunciationService pronunciationService;
+
+    @MockitoBean
+    private ProgressCounterService progressCounterService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private TagDictionaryService tagDictionaryService;
+
+    @MockitoBean
+    private QuizSamplingService quizSamplingService;
+
+    @MockitoBean
+    private PhraseSearchService phraseSearchService;
+
+    @Autowired
+    private PhraseServiceImpl phraseService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID firstExternalPhraseId;
+
+    @BeforeEach
+    void setUp() {
+
+        when(identityService.getOwnerUserAccountId()).thenReturn(OWNER_ID);
+
+        Tag verbs = tag("verbs");
+        Tag travel = tag("travel");
+
+        for (int i = 0; i < PHRASE_COUNT; i++) {
+
+            Phrase phrase = new Phrase();
+            phrase.setExternalPhraseId(UUID.randomUUID());
+            phrase.setOriginalPhrase("phrase " + i);
+            phrase.setOriginalLanguage(Language.ENGLISH);
+            phrase.setMeaning("meaning " + i);
+            phrase.setMeaningLanguage(Language.TURKISH);
+            phrase.setStatus(Status.IN_PROGRESS);
+            phrase.setConsecutiveCorrectAnswerAmount(0);
+            phrase.setOwnerUserAccountId(OWNER_ID);
+            phrase.setInsertDateTime(LocalDateTime.now().minusMinutes(i));
+            phrase.setDueAt(LocalDateTime.now().plusDays(i % 4).plusMinutes(i));
+            phrase.addTag(verbs);
+            phrase.addTag(travel);
+            entityManager.persist(phrase);
+
+            if (i == 0) {
+                firstExternalPhraseId = phrase.getExternalPhraseId();
+            }
+
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+    }
+
+    @Test
+    void getPhrasesLoadsTagsWithOneQuery() {
+
+        List<PhraseDTO> phrases = phraseService.getPhrases(null, null, null, null);
+
+        assertThat(phrases).hasSize(PHRASE_COUNT)
+                .allSatisfy(phrase -> assertThat(phrase.getPhraseTags()).containsExactly("verbs", "travel"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void getPhrasePageLoadsTagsWithOneQuery() {
+
+        assertThat(phraseService.getPhrasePage(null, null, null, null, null, 5, null).getPhrases()).hasSize(5)
+                .allSatisfy(phrase -> assertThat(phrase.getPhraseTags()).containsExactly("verbs", "travel"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void getPhrasePageFilteredByTagsLoadsTagsWithOneQuery() {
+
+        assertThat(phraseService.getPhrasePage(null, null, List.of("Verbs", "food"), null, null, 5, null).getPhrases()).hasSize(5);
+        assertThat(phraseService.getPhrasePage(null, null, List.of("Verbs", "food"), "all", null, 5, null).getPhrases()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+    }
+
+    @Test
+    void getPhrasePageWithoutTagsDoesNotLoadTags() {
+
+        assertThat(phraseService.getPhrasePage(null, null, null, null, null, 5, Set.of("originalPhrase")).getPhrases()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    }
+
+    @Test
+    void getLastTenPhrasesLoadsTagsWithOneQuery() {
+
+        assertThat(phraseService.getLastTenPhrases()).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void getNextQuizBatchReturnsTheMostDuePhrasesWithTwoQueries() {
+
+        assertThat(phraseService.getNextQuizBatch("en", 4)).extracting(PhraseDTO::getOriginalPhrase)
+                .containsExactly("phrase 0", "phrase 4", "phrase 8", "phrase 1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void getPhraseDetailsLoadsTagsWithOneQuery() {
+
+        assertThat(phraseService.getPhraseDetails(firstExternalPhraseId).getPhraseTags()).containsExactly("verbs", "travel");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    /**
+     * One phrase lookup, two tag lookups around the batch insert of the missing tags (a plain JDBC batch that Hibernate
+     * does not count), the phrase insert and one insert per phrase tag.
+     */
+    @Test
+    void createResolvesTagsWithOneQuery() {
+
+        PhraseDTO phraseDTO = new PhraseDTO(null, "new phrase", "en", "new meaning", "tr",
+                List.of("Verbs", "travel", "food", "drinks", "travel"), null, null);
+
+        assertThat(phraseService.create(phraseDTO).getPhraseTags()).containsExactly("verbs", "travel", "food", "drinks");
+
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(8);
+        assertThat(tagRepository.findAllByOwnerUserAccountId(OWNER_ID)).hasSize(4);
+
+    }
+
+    @Test
+    void updateKeepsRequestedTagsAndReplacesTheOthers() {
+
+        PhraseDTO phraseDTO = new PhraseDTO(null, "phrase 0", "en", "meaning 0", "tr",
+                List.of("travel", "food"), null, null);
+
+        assertThat(phraseService.update(firstExternalPhraseId, phraseDTO).getPhraseTags()).containsExactly("travel", "food");
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(phraseService.getPhraseDetails(firstExternalPhraseId).getPhraseTags())
+                .containsExactlyInAnyOrder("travel", "food");
+
+    }
+
+    @Test
+    void deleteAllByUserPublishesOneDeletionOfAllPhrases() {
+
+        phraseService.deleteAllByUser(OWNER_ID);
+
+        ArgumentCaptor<PhraseChangeMessageDTO> message = ArgumentCaptor.forClass(PhraseChangeMessageDTO.class);
+        verify(outboxService).enqueuePhraseChangeMessage(message.capture());
+
+        assertThat(message.getValue().getChangeType()).isEqualTo(PhraseChangeType.DELETED);
+        assertThat(message.getValue().getUserAccountId()).isEqualTo(OWNER_ID);
+        assertThat(message.getValue().getExternalPhraseIds()).hasSize(PHRASE_COUNT).contains(firstExternalPhraseId);
+
+    }
+
+    private Tag tag(String tagName) {
+        Tag tag = new Tag();
+        tag.setTagName(tagName);
+        tag.setOwnerUserAccountId(OWNER_ID);
+        entityManager.persist(tag);
+        return tag;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.JobLeaseProperties;
+import com.swiftling.repository.UserProgressRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a surrounding test transaction, so every writer commits on its own like concurrent requests do.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProgressCounterServiceImpl.class, JobLeaseServiceImpl.class, JobLeaseProperties.class})
+class ProgressCounterServiceImplTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+    private static final LocalDate BUCKET_DATE = LocalDate.of(2026, 10, 18);
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private ProgressCounterServiceImpl progressCounterService;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userProgressRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM phrases");
+    }
+
+    @Test
+    void concurrentWritersOfANewBucketAreAllCounted() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CyclicBarrier barrier = new CyclicBarrier(WRITERS);
+        List<Future<?>> writers = new ArrayList<>();
+
+        try {
+
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        progressCounterService.recordAdded(OWNER_ID, BUCKET_DATE, 2);
+                        Thread.sleep(50);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })));
+            }
+
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(userProgressRepository.findAllByOwnerUserAccountId(OWNER_ID))
+                .singleElement()
+                .satisfies(userProgress -> {
+                    assertThat(userProgress.getBucketDate()).isEqualTo(BUCKET_DATE);
+                    assertThat(userProgress.getAdded()).isEqualTo(2 * WRITERS);
+                    assertThat(userProgress.getLearned()).isZero();
+                });
+
+    }
+
+    @Test
+    void writersWaitForARebuildOfTheOwner() throws Exception {
+
+        jdbcTemplate.update("INSERT INTO phrases (external_phrase_id, original_phrase, original_language, meaning, "
+                + "meaning_language, status, consecutive_correct_answer_amount, owner_user_account_id, insert_date_time) "
+                + "VALUES (RANDOM_UUID(), 'bonjour', 'FRENCH', 'hello', 'ENGLISH', 'IN_PROGRESS', 0, ?, ?)",
+                OWNER_ID, BUCKET_DATE.atTime(12, 0));
+        transactionTemplate.executeWithoutResult(status -> progressCounterService.recordAdded(OWNER_ID, BUCKET_DATE, 1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+
+            Future<?> rebuild = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                progressCounterService.rebuild(OWNER_ID);
+                rebuilt.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+
+            assertThat(rebuilt.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    progressCounterService.recordAdded(OWNER_ID, BUCKET_DATE, 2)));
+
+            TimeUnit.MILLISECONDS.sleep(300);
+            assertThat(writer).isNotDone();
+
+            release.countDown();
+            rebuild.get(10, TimeUnit.SECONDS);
+            writer.get(10, TimeUnit.SECONDS);
+
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(userProgressRepository.findAllByOwnerUserAccountId(OWNER_ID))
+                .singleElement()
+                .satisfies(userProgress -> assertThat(userProgress.getAdded()).isEqualTo(3));
+
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.PronunciationProperties;
+import com.swiftling.dto.PronunciationDTO;
+import com.swiftling.dto.SpeechRequestDTO;
+import com.swiftling.enums.Language;
+import com.swiftling.service.SpeechSynthesizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PronunciationServiceImplTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private FakeSpeechSynthesizer speechSynthesizer;
+    private PronunciationProperties pronunciationProperties;
+
+    @BeforeEach
+    void setUp() {
+        speechSynthesizer = new FakeSpeechSynthesizer();
+        pronunciationProperties = new PronunciationProperties();
+        pronunciationProperties.setVoiceGender("NEUTRAL");
+        pronunciationProperties.setAudioEncoding("MP3");
+        pronunciationProperties.setMemoryCacheMaxBytes(1024);
+        pronunciationProperties.setDiskCacheEnabled(true);
+        pronunciationProperties.setDiskCacheDirectory(cacheDirectory.toString());
+        pronunciationProperties.setDiskCacheMaxBytes(1024);
+    }
+
+    @Test
+    void repeatedPronunciationIsServedFromMemory() {
+
+        PronunciationServiceImpl pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+
+        PronunciationDTO first = pronunciationService.getPronunciation("Bonjour", Language.FRENCH);
+        PronunciationDTO second = pronunciationService.getPronunciation("Bonjour", Language.FRENCH);
+
+        assertThat(second.getAudio()).isEqualTo(first.getAudio());
+        assertThat(second.getETag()).isEqualTo(first.getETag());
+        assertThat(second.getContentType()).isEqualTo("audio/mpeg");
+        assertThat(speechSynthesizer.requests).hasSize(1);
+
+    }
+
+    @Test
+    void eTagIsKnownWithoutSynthesizing() {
+
+        PronunciationServiceImpl pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+
+        String eTag = pronunciationService.getETag("Bonjour", Language.FRENCH);
+
+        assertThat(speechSynthesizer.requests).isEmpty();
+        assertThat(pronunciationService.getPronunciation("Bonjour", Language.FRENCH).getETag()).isEqualTo(eTag);
+        assertThat(pronunciationService.getETag("Bonjour", Language.GERMAN)).isNotEqualTo(eTag);
+
+    }
+
+    @Test
+    void languageIsPartOfTheCacheKey() {
+
+        PronunciationServiceImpl pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+
+        pronunciationService.getPronunciation("Hotel", Language.FRENCH);
+        pronunciationService.getPronunciation("Hotel", Language.GERMAN);
+
+        assertThat(speechSynthesizer.requests).extracting(SpeechRequestDTO::getLanguageCode).containsExactly("fr", "de");
+
+    }
+
+    @Test
+    void pronunciationSurvivesRestartThroughDiskTier() throws Exception {
+
+        new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties).getPronunciation("Bonjour", Language.FRENCH);
+
+        PronunciationDTO pronunciation = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties).getPronunciation("Bonjour", Language.FRENCH);
+
+        assertThat(new String(pronunciation.getAudio(), StandardCharsets.UTF_8)).isEqualTo("fr:Bonjour");
+        assertThat(speechSynthesizer.requests).hasSize(1);
+
+        try (var files = Files.list(cacheDirectory)) {
+            assertThat(files).singleElement().satisfies(file -> assertThat(file.toString()).endsWith(".mp3"));
+        }
+
+    }
+
+    @Test
+    void memoryTierEvictsLeastRecentlyUsedEntries() {
+
+        pronunciationProperties.setDiskCacheEnabled(false);
+        pronunciationProperties.setMemoryCacheMaxBytes(20);
+
+        PronunciationServiceImpl pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+
+        pronunciationService.getPronunciation("aaaaaa", Language.FRENCH);
+        pronunciationService.getPronunciation("bbbbbb", Language.FRENCH);
+        pronunciationService.getPronunciation("aaaaaa", Language.FRENCH);
+        pronunciationService.getPronunciation("cccccc", Language.FRENCH);
+        pronunciationService.getPronunciation("aaaaaa", Language.FRENCH);
+        pronunciationService.getPronunciation("bbbbbb", Language.FRENCH);
+
+        assertThat(speechSynthesizer.requests).extracting(SpeechRequestDTO::getText)
+                .containsExactly("aaaaaa", "bbbbbb", "cccccc", "bbbbbb");
+
+    }
+
+    @Test
+    void diskTierDeletesLeastRecentlyUsedFiles() throws Exception {
+
+        pronunciationProperties.setMemoryCacheMaxBytes(0);
+        pronunciationProperties.setDiskCacheMaxBytes(20);
+
+        PronunciationServiceImpl pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+
+        pronunciationService.getPronunciation("aaaaaa", Language.FRENCH);
+        pronunciationService.getPronunciation("bbbbbb", Language.FRENCH);
+        pronunciationService.getPronunciation("aaaaaa", Language.FRENCH);
+        pronunciationService.getPronunciation("cccccc", Language.FRENCH);
+
+        try (var files = Files.list(cacheDirectory)) {
+            assertThat(files).hasSize(2);
+        }
+
+        pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+        pronunciationService.getPronunciation("aaaaaa", Language.FRENCH);
+        pronunciationService.getPronunciation("bbbbbb", Language.FRENCH);
+
+        assertThat(speechSynthesizer.requests).extracting(SpeechRequestDTO::getText)
+                .containsExactly("aaaaaa", "bbbbbb", "cccccc", "bbbbbb");
+
+    }
+
+    @Test
+    void concurrentMissesShareOneSynthesis() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        speechSynthesizer.release = release;
+
+        PronunciationServiceImpl pronunciationService = new PronunciationServiceImpl(speechSynthesizer, pronunciationProperties);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+
+            List<Future<PronunciationDTO>> pronunciations = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                pronunciations.add(executor.submit(() -> pronunciationService.getPronunciation("Bonjour", Language.FRENCH)));
+            }
+
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<PronunciationDTO> pronunciation : pronunciations) {
+                assertThat(new String(pronunciation.get().getAudio(), StandardCharsets.UTF_8)).isEqualTo("fr:Bonjour");
+            }
+
+        }
+
+        assertThat(speechSynthesizer.requests).hasSize(1);
+
+    }
+
+    private static class FakeSpeechSynthesizer implements SpeechSynthesizer {
+
+        private final List<SpeechRequestDTO> requests = new CopyOnWriteArrayList<>();
+        private CountDownLatch release;
+
+        @Override
+        public byte[] synthesize(SpeechRequestDTO speechRequest) {
+            requests.add(speechRequest);
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return (speechRequest.getLanguageCode() + ":" + speechRequest.getText()).getBytes(StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.QuizProperties;
+import com.swiftling.entity.Phrase;
+import com.swiftling.entity.Tag;
+import com.swiftling.enums.Language;
+import com.swiftling.enums.Status;
+import com.swiftling.repository.PhraseRepository;
+import com.swiftling.repository.TagRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(QuizProperties.class)
+class QuizSamplingServiceImplTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+
+    @Autowired
+    private PhraseRepository phraseRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private QuizProperties quizProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private QuizSamplingServiceImpl quizSamplingService;
+
+    private Phrase bonjour;
+    private Phrase merci;
+    private Phrase hola;
+
+    @BeforeEach
+    void setUp() {
+
+        quizSamplingService = new QuizSamplingServiceImpl(phraseRepository, quizProperties, transactionManager, meterRegistry);
+
+        Tag greeting = new Tag();
+        greeting.setTagName("greeting");
+        greeting.setOwnerUserAccountId(OWNER_ID);
+        tagRepository.save(greeting);
+
+        bonjour = phrase("Bonjour", Language.FRENCH, Status.IN_PROGRESS, 0, OWNER_ID, greeting);
+        merci = phrase("Merci", Language.FRENCH, Status.IN_PROGRESS, 9, OWNER_ID);
+        hola = phrase("Hola", Language.SPANISH, Status.LEARNED, 10, OWNER_ID, greeting);
+        phrase("Salut", Language.FRENCH, Status.IN_PROGRESS, 0, UUID.randomUUID());
+
+    }
+
+    @AfterEach
+    void tearDown() {
+        phraseRepository.deleteAll();
+        tagRepository.deleteAll();
+    }
+
+    @Test
+    void samplesOnlyMatchingPhrasesFromOneSnapshot() {
+
+        assertThat(quizSamplingService.sample(OWNER_ID, null, null, null, 10))
+                .containsExactlyInAnyOrder(bonjour.getId(), merci.getId(), hola.getId());
+        assertThat(quizSamplingService.sample(OWNER_ID, Status.IN_PROGRESS, Language.FRENCH, null, 10))
+                .containsExactlyInAnyOrder(bonjour.getId(), merci.getId());
+        assertThat(quizSamplingService.sample(OWNER_ID, null, null, "Greeting", 10))
+                .containsExactlyInAnyOrder(bonjour.getId(), hola.getId());
+        assertThat(quizSamplingService.sample(OWNER_ID, Status.LEARNED, Language.FRENCH, "greeting", 10)).isEmpty();
+        assertThat(quizSamplingService.sample(OWNER_ID, null, null, "unknown", 10)).isEmpty();
+
+        assertThat(meterRegistry.get("swiftling.quiz.sampling.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("swiftling.quiz.sampling.cache.phrases").gauge().value()).isEqualTo(3);
+
+    }
+
+    @Test
+    void favoursPhrasesWithFewerConsecutiveCorrectAnswers() {
+
+        int bonjourDraws = 0;
+
+        for (int i = 0; i < 2000; i++) {
+            if (quizSamplingService.sample(OWNER_ID, Status.IN_PROGRESS, null, null, 1).equals(List.of(bonjour.getId()))) {
+                bonjourDraws++;
+            }
+        }
+
+        // Weights 1 and 1/10: Bonjour is expected in 10 of 11 draws.
+        assertThat(bonjourDraws).isBetween(1700, 1930);
+
+    }
+
+    @Test
+    void answersPatchTheSnapshotAndChangesEvictIt() {
+
+        quizSamplingService.sample(OWNER_ID, null, null, null, 10);
+
+        merci.setStatus(Status.LEARNED);
+        merci.setConsecutiveCorrectAnswerAmount(10);
+        quizSamplingService.recordAnswers(OWNER_ID, List.of(merci));
+
+        assertThat(quizSamplingService.sample(OWNER_ID, Status.LEARNED, null, null, 10))
+                .containsExactlyInAnyOrder(merci.getId(), hola.getId());
+        assertThat(meterRegistry.get("swiftling.quiz.sampling.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+
+        phraseRepository.delete(hola);
+        quizSamplingService.evict(OWNER_ID);
+
+        assertThat(quizSamplingService.sample(OWNER_ID, Status.LEARNED, null, null, 10)).isEmpty();
+        assertThat(meterRegistry.get("swiftling.quiz.sampling.cache").tag("result", "miss").counter().count()).isEqualTo(2);
+
+    }
+
+    private Phrase phrase(String originalPhrase, Language originalLanguage, Status status, int consecutiveCorrectAnswerAmount,
+                          UUID ownerId, Tag... tags) {
+
+        Phrase phrase = new Phrase();
+        phrase.setExternalPhraseId(UUID.randomUUID());
+        phrase.setOriginalPhrase(originalPhrase);
+        phrase.setOriginalLanguage(originalLanguage);
+        phrase.setMeaning(originalPhrase);
+        phrase.setMeaningLanguage(Language.ENGLISH);
+        phrase.setStatus(status);
+        phrase.setConsecutiveCorrectAnswerAmount(consecutiveCorrectAnswerAmount);
+        phrase.setOwnerUserAccountId(ownerId);
+        phrase.setInsertDateTime(LocalDateTime.now());
+
+        for (Tag tag : tags) {
+            phrase.addTag(tag);
+        }
+
+        return phraseRepository.save(phrase);
+
+    }
+
+}
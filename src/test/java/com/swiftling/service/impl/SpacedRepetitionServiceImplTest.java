@@ -0,0 +1,68 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.QuizProperties;
+import com.swiftling.entity.Phrase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class SpacedRepetitionServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private SpacedRepetitionServiceImpl spacedRepetitionService;
+    private Phrase phrase;
+
+    @BeforeEach
+    void setUp() {
+        QuizProperties quizProperties = new QuizProperties();
+        quizProperties.setRelearnDelay(Duration.ofMinutes(10));
+        quizProperties.setMaxIntervalDays(30);
+        spacedRepetitionService = new SpacedRepetitionServiceImpl(quizProperties);
+        phrase = new Phrase();
+        spacedRepetitionService.resetSchedule(phrase, NOW);
+    }
+
+    @Test
+    void correctAnswersGrowTheIntervalUpToTheMaximum() {
+
+        spacedRepetitionService.recordAnswer(phrase, true, NOW);
+        assertThat(phrase.getDueAt()).isEqualTo(NOW.plusDays(1));
+
+        spacedRepetitionService.recordAnswer(phrase, true, NOW);
+        assertThat(phrase.getDueAt()).isEqualTo(NOW.plusDays(6));
+
+        spacedRepetitionService.recordAnswer(phrase, true, NOW);
+        assertThat(phrase.getReviewIntervalDays()).isEqualTo(16);
+        assertThat(phrase.getEaseFactor()).isEqualTo(2.8, offset(1e-9));
+
+        spacedRepetitionService.recordAnswer(phrase, true, NOW);
+        assertThat(phrase.getReviewIntervalDays()).isEqualTo(30);
+
+    }
+
+    @Test
+    void wrongAnswerRestartsTheIntervalAndLowersTheEase() {
+
+        spacedRepetitionService.recordAnswer(phrase, true, NOW);
+        spacedRepetitionService.recordAnswer(phrase, true, NOW);
+        spacedRepetitionService.recordAnswer(phrase, false, NOW);
+
+        assertThat(phrase.getReviewIntervalDays()).isZero();
+        assertThat(phrase.getDueAt()).isEqualTo(NOW.plusMinutes(10));
+        assertThat(phrase.getEaseFactor()).isEqualTo(2.5, offset(1e-9));
+
+        for (int i = 0; i < 10; i++) {
+            spacedRepetitionService.recordAnswer(phrase, false, NOW);
+        }
+
+        assertThat(phrase.getEaseFactor()).isEqualTo(1.3);
+
+    }
+
+}
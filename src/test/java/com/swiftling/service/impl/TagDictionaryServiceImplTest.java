@@ -0,0 +1,107 @@
+package com.swiftling.service.impl;
+
+import com.swiftling.config.TagCacheProperties;
+import com.swiftling.enums.DefaultTag;
+import com.swiftling.repository.TagRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TagDictionaryServiceImplTest {
+
+    private static final UUID FIRST_USER = new UUID(0, 1);
+    private static final UUID SECOND_USER = new UUID(0, 2);
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TagCacheProperties tagCacheProperties;
+    private TagDictionaryServiceImpl tagDictionaryService;
+
+    @BeforeEach
+    void setUp() {
+        tagCacheProperties = new TagCacheProperties();
+        tagCacheProperties.setTtl(Duration.ofMinutes(5));
+        tagCacheProperties.setMaxSize(1);
+        tagDictionaryService = new TagDictionaryServiceImpl(tagRepository, tagCacheProperties, meterRegistry);
+        when(tagRepository.findTagNamesByPhraseOwner(any())).thenReturn(List.of("travel", "verb"));
+    }
+
+    @Test
+    void repeatedRequestIsServedFromTheCache() {
+
+        assertThat(List.copyOf(tagDictionaryService.getTags(FIRST_USER)))
+                .contains("travel", DefaultTag.NOUN.getValue())
+                .isSorted();
+        tagDictionaryService.getTags(FIRST_USER);
+
+        verify(tagRepository, times(1)).findTagNamesByPhraseOwner(FIRST_USER);
+        assertThat(meterRegistry.get("swiftling.tags.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("swiftling.tags.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+
+    }
+
+    @Test
+    void leastRecentlyUsedOwnerIsDroppedBeyondMaxSize() {
+
+        tagDictionaryService.getTags(FIRST_USER);
+        tagDictionaryService.getTags(SECOND_USER);
+        tagDictionaryService.getTags(FIRST_USER);
+
+        verify(tagRepository, times(2)).findTagNamesByPhraseOwner(FIRST_USER);
+        assertThat(meterRegistry.get("swiftling.tags.cache.size").gauge().value()).isEqualTo(1);
+
+    }
+
+    @Test
+    void evictionWaitsForTheTransactionToComplete() {
+
+        tagDictionaryService.getTags(FIRST_USER);
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+
+            tagDictionaryService.evict(FIRST_USER);
+            tagDictionaryService.getTags(FIRST_USER);
+
+            verify(tagRepository, times(1)).findTagNamesByPhraseOwner(FIRST_USER);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        tagDictionaryService.getTags(FIRST_USER);
+
+        verify(tagRepository, times(2)).findTagNamesByPhraseOwner(FIRST_USER);
+
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+
+        when(tagRepository.findTagNamesByPhraseOwner(FIRST_USER)).thenAnswer(invocation -> {
+            tagDictionaryService.evict(FIRST_USER);
+            return List.of("travel");
+        });
+
+        tagDictionaryService.getTags(FIRST_USER);
+        tagDictionaryService.getTags(FIRST_USER);
+
+        verify(tagRepository, times(2)).findTagNamesByPhraseOwner(FIRST_USER);
+
+    }
+
+}